@@ -0,0 +1,122 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.MethodAccessorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures subscribing the first instance of a listener class, which scans the class and generates its accessors,
+ * and how much metaspace that takes. Every operation loads {@link GeneratedListener} in a new class loader. The loaders
+ * are kept until the trial ends so classes are not unloaded while measuring. The score is the time taken by a batch
+ * of 1000 classes, divide the {@code metaspaceBytes} counter by the {@code classes} counter for the metaspace taken by
+ * each listener class.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1000)
+@Measurement(iterations = 5, batchSize = 1000)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassGenerationBenchmark {
+
+    @Param({"hiddenClasses", "asm", "reflection"})
+    public String factory;
+
+    private EventBus eventBus;
+    private byte[] listenerClass;
+    private final List<ClassLoader> loaders = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        MethodAccessorFactory accessorFactory = switch (factory) {
+            case "hiddenClasses" -> MethodAccessorFactory.hiddenClasses();
+            case "asm" -> MethodAccessorFactory.asm();
+            case "reflection" -> MethodAccessorFactory.reflection();
+            default -> throw new IllegalArgumentException(factory);
+        };
+        eventBus = new EventBus(Runnable::run, accessorFactory);
+        try (InputStream in = GeneratedListener.class.getResourceAsStream(GeneratedListener.class.getSimpleName() + ".class")) {
+            listenerClass = in.readAllBytes();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        loaders.clear();
+    }
+
+    @Benchmark
+    public void subscribeNewClass(Metaspace metaspace) throws ReflectiveOperationException {
+        ListenerLoader loader = new ListenerLoader(listenerClass);
+        loaders.add(loader);
+        Object listener = loader.loadClass(GeneratedListener.class.getName()).getConstructor().newInstance();
+        eventBus.subscribe(listener);
+        eventBus.unsubscribe(listener);
+        metaspace.classes++;
+    }
+
+    public static final class Event {}
+
+    /**
+     * Counts the classes generated and the metaspace they took in each iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Metaspace {
+        public long classes;
+        public long metaspaceBytes;
+        private long before;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            classes = 0;
+            metaspaceBytes = 0;
+            before = used();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            metaspaceBytes = used() - before;
+        }
+
+        private static long used() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getName().equals("Metaspace")) {
+                    return pool.getUsage().getUsed();
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Defines its own copy of {@link GeneratedListener}, leaving every other class to its parent
+     */
+    private static final class ListenerLoader extends ClassLoader {
+        private final byte[] listenerClass;
+
+        private ListenerLoader(byte[] listenerClass) {
+            super(ClassGenerationBenchmark.class.getClassLoader());
+            this.listenerClass = listenerClass;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(GeneratedListener.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                return loaded != null ? loaded : defineClass(name, listenerClass, 0, listenerClass.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures several threads dispatching on the same bus, alone and while another thread keeps subscribing and
+ * unsubscribing a listener, which replaces the listener snapshots and invalidates the cached dispatch plans.
+ * Listeners burn a few cycles instead of consuming into a shared {@link Blackhole}, which is not thread safe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContendedDispatchBenchmark {
+
+    @Param({"10"})
+    public int listeners;
+
+    private EventBus eventBus;
+    private final Event event = new Event();
+    private final Listener churning = new Listener();
+
+    @Setup
+    public void setup() {
+        eventBus = new EventBus(Runnable::run);
+        for (int i = 0; i < listeners; i++) {
+            eventBus.subscribe(new Listener());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void dispatch() {
+        eventBus.dispatch(event);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public void churnDispatch() {
+        eventBus.dispatch(event);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void churnSubscribe() {
+        eventBus.subscribe(churning);
+        eventBus.unsubscribe(churning);
+    }
+
+    public static final class Event {}
+
+    public static final class Listener {
+        @Subscribe(Preference.CALLER)
+        public void on(Event event) {
+            Blackhole.consumeCPU(4);
+        }
+    }
+}
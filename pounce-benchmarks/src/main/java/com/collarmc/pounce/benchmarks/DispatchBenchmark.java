@@ -0,0 +1,102 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.AbstractCancelable;
+import com.collarmc.pounce.Cancelable;
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dispatching to {@link Preference#CALLER} listeners, which should not allocate once warmed up.
+ * Run with {@code -prof gc} and check that {@code gc.alloc.rate.norm} stays at zero bytes per operation,
+ * {@code DispatchAllocationTest} enforces this as part of the build.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    @Param({"1", "10"})
+    public int listeners;
+
+    /**
+     * 0 dispatches through the loop, otherwise through a compiled chain
+     */
+    @Param({"1000", "0"})
+    public int compileThreshold;
+
+    private EventBus eventBus;
+    private final Event event = new Event();
+    private final SubEvent subEvent = new SubEvent();
+    private final CancelableEvent cancelableEvent = new CancelableEvent();
+    private final AbstractCancelableEvent abstractCancelableEvent = new AbstractCancelableEvent();
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        eventBus = EventBus.builder(Runnable::run).compileThreshold(compileThreshold).build();
+        for (int i = 0; i < listeners; i++) {
+            eventBus.subscribe(new Listener(blackhole));
+        }
+    }
+
+    @Benchmark
+    public void dispatch() {
+        eventBus.dispatch(event);
+    }
+
+    /**
+     * Dispatches to listeners of the superclass through the cached plan of the subclass
+     */
+    @Benchmark
+    public void dispatchSubtype() {
+        eventBus.dispatch(subEvent);
+    }
+
+    @Benchmark
+    public void dispatchCancelable() {
+        eventBus.dispatch(cancelableEvent);
+    }
+
+    @Benchmark
+    public void dispatchAbstractCancelable() {
+        eventBus.dispatch(abstractCancelableEvent);
+    }
+
+    public static class Event {}
+
+    public static final class SubEvent extends Event {}
+
+    public static final class CancelableEvent implements Cancelable {}
+
+    public static final class AbstractCancelableEvent extends AbstractCancelable {}
+
+    public static final class Listener {
+        private final Blackhole blackhole;
+
+        public Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.DISPATCH)
+        public void on(CancelableEvent event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(AbstractCancelableEvent event) {
+            blackhole.consume(event);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+
+/**
+ * Loaded again by {@link ClassGenerationBenchmark} for every operation, so the bus has to generate its accessor anew
+ */
+public final class GeneratedListener {
+    @Subscribe(Preference.CALLER)
+    public void on(ClassGenerationBenchmark.Event event) {}
+}
@@ -0,0 +1,163 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.AbstractCancelable;
+import com.collarmc.pounce.Cancelable;
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how dispatch scales with the number of listeners of an event, for plain and cancelable events.
+ * With mixed preferences the listeners cycle through {@link Preference#CALLER}, {@link Preference#DISPATCH},
+ * {@link Preference#MAIN} and {@link Preference#POOL}. The main thread and pool run tasks inline, so the numbers show
+ * the cost of the bus handing invocations off rather than of the threads running them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerScaleBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int listeners;
+
+    @Param({"caller", "mixed"})
+    public String preferences;
+
+    private EventBus eventBus;
+    private final Event event = new Event();
+    private final CancelableEvent cancelableEvent = new CancelableEvent();
+    private final AbstractCancelableEvent abstractCancelableEvent = new AbstractCancelableEvent();
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        eventBus = EventBus.builder(Runnable::run).executor(Runnable::run).build();
+        for (int i = 0; i < listeners; i++) {
+            eventBus.subscribe(switch (preferences.equals("mixed") ? i % 4 : 0) {
+                case 0 -> new CallerListener(blackhole);
+                case 1 -> new DispatchListener(blackhole);
+                case 2 -> new MainListener(blackhole);
+                default -> new PoolListener(blackhole);
+            });
+        }
+    }
+
+    @Benchmark
+    public void dispatch() {
+        eventBus.dispatch(event);
+    }
+
+    @Benchmark
+    public void dispatchCancelable() {
+        eventBus.dispatch(cancelableEvent);
+    }
+
+    @Benchmark
+    public void dispatchAbstractCancelable() {
+        eventBus.dispatch(abstractCancelableEvent);
+    }
+
+    public static final class Event {}
+
+    public static final class CancelableEvent implements Cancelable {}
+
+    public static final class AbstractCancelableEvent extends AbstractCancelable {}
+
+    public static final class CallerListener {
+        private final Blackhole blackhole;
+
+        public CallerListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(CancelableEvent event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(AbstractCancelableEvent event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static final class DispatchListener {
+        private final Blackhole blackhole;
+
+        public DispatchListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.DISPATCH)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.DISPATCH)
+        public void on(CancelableEvent event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.DISPATCH)
+        public void on(AbstractCancelableEvent event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static final class MainListener {
+        private final Blackhole blackhole;
+
+        public MainListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.MAIN)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.MAIN)
+        public void on(CancelableEvent event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.MAIN)
+        public void on(AbstractCancelableEvent event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static final class PoolListener {
+        private final Blackhole blackhole;
+
+        public PoolListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.POOL)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.POOL)
+        public void on(CancelableEvent event) {
+            blackhole.consume(event);
+        }
+
+        @Subscribe(Preference.POOL)
+        public void on(AbstractCancelableEvent event) {
+            blackhole.consume(event);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.MethodAccessor;
+import com.collarmc.pounce.MethodAccessorFactory;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares dispatch over the copy-on-write listener snapshots used by {@link EventBus} with the
+ * {@link ConcurrentLinkedDeque} iteration it replaced. Chains are not compiled, so both sides run a dispatch loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerSnapshotBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private EventBus eventBus;
+    private ConcurrentHashMap<Class<?>, ConcurrentLinkedDeque<DequeListener>> dequeListeners;
+    private final Event event = new Event();
+
+    @Setup
+    public void setup(Blackhole blackhole) throws NoSuchMethodException {
+        eventBus = EventBus.builder(Runnable::run).compileThreshold(0).build();
+        dequeListeners = new ConcurrentHashMap<>();
+        ConcurrentLinkedDeque<DequeListener> deque = new ConcurrentLinkedDeque<>();
+        for (int i = 0; i < listenerCount; i++) {
+            Listener listener = new Listener(blackhole);
+            eventBus.subscribe(listener);
+            deque.add(new DequeListener(MethodAccessorFactory.hiddenClasses().create(Listener.class.getMethod("on", Event.class), Event.class), listener, Preference.CALLER, false));
+        }
+        dequeListeners.put(Event.class, deque);
+    }
+
+    @Benchmark
+    public void snapshot() {
+        eventBus.dispatch(event, e -> {});
+    }
+
+    @Benchmark
+    public void deque() {
+        ConcurrentLinkedDeque<DequeListener> listenerInfos = dequeListeners.get(event.getClass());
+        if (listenerInfos != null && !listenerInfos.isEmpty()) {
+            for (DequeListener listenerInfo : listenerInfos) {
+                switch (listenerInfo.preference) {
+                    case DISPATCH, CALLER -> listenerInfo.methodAccessor.executeEvent(listenerInfo.target, event);
+                    default -> throw new IllegalStateException();
+                }
+                if (listenerInfo.isCancellable) {
+                    throw new IllegalStateException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Mirrors the fields the deque based dispatch loop read per listener
+     */
+    private record DequeListener(MethodAccessor methodAccessor, Object target, Preference preference, boolean isCancellable) {}
+
+    public static final class Event {}
+
+    public static final class Listener {
+        private final Blackhole blackhole;
+
+        public Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+    }
+}
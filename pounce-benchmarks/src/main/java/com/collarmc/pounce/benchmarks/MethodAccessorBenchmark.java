@@ -0,0 +1,79 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.MethodAccessor;
+import com.collarmc.pounce.MethodAccessorFactory;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of invoking a subscriber method and of creating its accessor across {@link MethodAccessorFactory}s
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MethodAccessorBenchmark {
+
+    @Param({"hiddenClasses", "asm", "reflection"})
+    public String factory;
+
+    private MethodAccessorFactory accessorFactory;
+    private Method method;
+    private MethodAccessor accessor;
+    private Listener listener;
+    private final Event event = new Event();
+
+    @Setup
+    public void setup(Blackhole blackhole) throws NoSuchMethodException {
+        accessorFactory = switch (factory) {
+            case "hiddenClasses" -> MethodAccessorFactory.hiddenClasses();
+            case "asm" -> MethodAccessorFactory.asm();
+            case "reflection" -> MethodAccessorFactory.reflection();
+            default -> throw new IllegalArgumentException(factory);
+        };
+        method = Listener.class.getMethod("on", Event.class);
+        accessor = accessorFactory.create(method, Event.class);
+        listener = new Listener(blackhole);
+    }
+
+    @Benchmark
+    public void invoke() {
+        accessor.executeEvent(listener, event);
+    }
+
+    @Benchmark
+    public void direct() {
+        listener.on(event);
+    }
+
+    /**
+     * Defines a new accessor, and for the generating factories a new class, on every invocation
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MethodAccessor create() {
+        return accessorFactory.create(method, Event.class);
+    }
+
+    public static final class Event {}
+
+    public static final class Listener {
+        private final Blackhole blackhole;
+
+        public Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void on(Event event) {
+            blackhole.consume(event);
+        }
+    }
+}
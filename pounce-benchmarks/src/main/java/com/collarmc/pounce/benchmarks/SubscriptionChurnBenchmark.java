@@ -0,0 +1,72 @@
+package com.collarmc.pounce.benchmarks;
+
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures subscribing and then unsubscribing many listener instances of a class whose accessors already exist,
+ * strongly, weakly and through a scope closed in one step
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubscriptionChurnBenchmark {
+
+    @Param({"10000"})
+    public int instances;
+
+    private EventBus eventBus;
+    private Listener[] listeners;
+
+    @Setup
+    public void setup() {
+        eventBus = new EventBus(Runnable::run);
+        listeners = new Listener[instances];
+        for (int i = 0; i < instances; i++) {
+            listeners[i] = new Listener();
+        }
+    }
+
+    @Benchmark
+    public void subscribeUnsubscribe() {
+        for (Listener listener : listeners) {
+            eventBus.subscribe(listener);
+        }
+        for (Listener listener : listeners) {
+            eventBus.unsubscribe(listener);
+        }
+    }
+
+    @Benchmark
+    public void subscribeWeakUnsubscribe() {
+        for (Listener listener : listeners) {
+            eventBus.subscribeWeak(listener);
+        }
+        for (Listener listener : listeners) {
+            eventBus.unsubscribe(listener);
+        }
+    }
+
+    @Benchmark
+    public void subscribeScopeClose() {
+        EventBus scope = eventBus.scope();
+        for (Listener listener : listeners) {
+            scope.subscribe(listener);
+        }
+        scope.close();
+    }
+
+    public static final class Event {}
+
+    public static final class Listener {
+        @Subscribe(Preference.CALLER)
+        public void on(Event event) {}
+    }
+}
@@ -0,0 +1,44 @@
+package com.collarmc.pounce.benchmarks;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+public class DispatchAllocationTest {
+
+    /**
+     * Allows for the profiler's own noise, a single allocation per event would be at least 16 bytes
+     */
+    private static final double MAX_BYTES_PER_DISPATCH = 1.0;
+
+    @Test
+    public void dispatchDoesNotAllocate() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DispatchBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.milliseconds(300))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.milliseconds(300))
+                .param("listeners", "10")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        Assert.assertFalse(results.isEmpty());
+        for (RunResult result : results) {
+            Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            Assert.assertNotNull("gc profiler did not report allocations", allocated);
+            Assert.assertTrue(result.getParams().getBenchmark() + " allocated " + allocated.getScore() + " bytes per dispatch",
+                    allocated.getScore() < MAX_BYTES_PER_DISPATCH);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.collarmc.pounce.processor;
+
+import com.collarmc.pounce.EventInfo;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import com.collarmc.pounce.SubscriberIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Generates a {@link SubscriberIndex} for every class declaring {@link Subscribe} methods, so the bus can subscribe
+ * instances without reflection or runtime class generation. Each subscriber method gets its own accessor class
+ * calling it directly. Classes the generated code cannot reach, such as private classes or private subscriber
+ * methods, are skipped with a warning and fall back to runtime generation.
+ */
+public final class SubscribeProcessor extends AbstractProcessor {
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(Subscribe.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<ExecutableElement>> listeners = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Subscribe.class)) {
+            if (element.getKind() != ElementKind.METHOD || !(element.getEnclosingElement() instanceof TypeElement type)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) element;
+            // the runtime only considers methods with a single parameter
+            if (method.getParameters().size() == 1) {
+                listeners.computeIfAbsent(type, t -> new ArrayList<>()).add(method);
+            }
+        }
+        listeners.forEach((type, methods) -> {
+            String reason = unsupported(type, methods);
+            if (reason != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Not generating a subscriber index for " + type + ": " + reason + ". Its subscribers will be generated at runtime.", type);
+            } else if (generated.add(type.getQualifiedName().toString())) {
+                write(type, methods);
+            }
+        });
+        return false;
+    }
+
+    /**
+     * @return why the generated index could not call methods of type or null if it can
+     */
+    private String unsupported(TypeElement type, List<ExecutableElement> methods) {
+        for (Element enclosing = type; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return enclosing + " is private";
+            }
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            return "it is a local or anonymous class";
+        }
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                return method + " is private";
+            }
+            if (method.getModifiers().contains(Modifier.STATIC)) {
+                return method + " is static";
+            }
+            TypeMirror eventType = eventType(method);
+            if (eventType.getKind() != TypeKind.DECLARED) {
+                return method + " does not accept an object";
+            }
+            if (processingEnv.getTypeUtils().asElement(eventType).getModifiers().contains(Modifier.PRIVATE)) {
+                return "the event type of " + method + " is private";
+            }
+            if (preference(method) == Preference.UNSET) {
+                return method + " has no preference";
+            }
+            TypeElement filter = filter(method);
+            if (filter != null && !instantiable(filter)) {
+                return "the filter of " + method + " cannot be instantiated";
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement type, List<ExecutableElement> methods) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String indexName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1) + SubscriberIndex.SUFFIX;
+        String listenerType = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? indexName : packageName + "." + indexName, type);
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                if (!packageName.isEmpty()) {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+                out.println("@javax.annotation.processing.Generated(\"" + SubscribeProcessor.class.getName() + "\")");
+                out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+                out.println("public final class " + indexName + " implements com.collarmc.pounce.SubscriberIndex {");
+                out.println();
+                out.println("    @Override");
+                out.println("    public com.collarmc.pounce.SubscriberMethod[] subscribers() {");
+                out.println("        return new com.collarmc.pounce.SubscriberMethod[] {");
+                for (int i = 0; i < methods.size(); i++) {
+                    ExecutableElement method = methods.get(i);
+                    String eventType = processingEnv.getTypeUtils().erasure(eventType(method)).toString();
+                    out.println("                new com.collarmc.pounce.SubscriberMethod(" + listenerType + ".class, \"" + method.getSimpleName() + "\", "
+                            + eventType + ".class, com.collarmc.pounce.Preference." + preference(method).name() + ", "
+                            + method.getAnnotation(Subscribe.class).priority() + ", "
+                            + processingEnv.getElementUtils().getConstantExpression(method.getAnnotation(Subscribe.class).executor()) + ", new Accessor" + i + "(), "
+                            + (filter(method) == null ? "null" : "(java.util.function.Predicate) new " + processingEnv.getTypeUtils().erasure(filter(method).asType()) + "()") + "),");
+                }
+                out.println("        };");
+                out.println("    }");
+                for (int i = 0; i < methods.size(); i++) {
+                    ExecutableElement method = methods.get(i);
+                    String eventType = processingEnv.getTypeUtils().erasure(eventType(method)).toString();
+                    out.println();
+                    out.println("    private static final class Accessor" + i + " extends com.collarmc.pounce.MethodAccessor {");
+                    out.println("        @Override");
+                    out.println("        public void executeEvent(Object handler, Object event) {");
+                    out.println("            ((" + listenerType + ") handler)." + method.getSimpleName() + "((" + eventType + ") event);");
+                    out.println("        }");
+                    out.println("    }");
+                }
+                out.println("}");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the filter class of method or null if it has none
+     */
+    private TypeElement filter(ExecutableElement method) {
+        TypeElement element;
+        try {
+            Class<?> filter = method.getAnnotation(Subscribe.class).filter();
+            element = processingEnv.getElementUtils().getTypeElement(filter.getCanonicalName());
+        } catch (MirroredTypeException e) {
+            element = (TypeElement) processingEnv.getTypeUtils().asElement(e.getTypeMirror());
+        }
+        return element.getQualifiedName().contentEquals(Predicate.class.getName()) ? null : element;
+    }
+
+    /**
+     * @return if the generated index can call the no-argument constructor of filter
+     */
+    private boolean instantiable(TypeElement filter) {
+        for (Element enclosing = filter; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        if (filter.getModifiers().contains(Modifier.ABSTRACT) || filter.getNestingKind() == NestingKind.LOCAL || filter.getNestingKind() == NestingKind.ANONYMOUS
+                || (filter.getNestingKind() == NestingKind.MEMBER && !filter.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+        return ElementFilter.constructorsIn(filter.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    private static TypeMirror eventType(ExecutableElement method) {
+        return method.getParameters().get(0).asType();
+    }
+
+    /**
+     * Resolves the preference the same way as the runtime scan, an {@link EventInfo} on the event type setting one wins
+     */
+    private Preference preference(ExecutableElement method) {
+        Element eventElement = processingEnv.getTypeUtils().asElement(eventType(method));
+        EventInfo eventInfo = eventElement == null ? null : eventElement.getAnnotation(EventInfo.class);
+        return eventInfo != null && eventInfo.preference() != Preference.UNSET ? eventInfo.preference() : method.getAnnotation(Subscribe.class).value();
+    }
+}
@@ -0,0 +1,115 @@
+package com.collarmc.pounce.processor;
+
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.SubscriberIndex;
+import com.collarmc.pounce.SubscriberExceptionHandler;
+import com.collarmc.pounce.SubscriberMethod;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SubscribeProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void generatesIndex() throws Exception {
+        try (URLClassLoader classLoader = compile("test.Listener", """
+                package test;
+
+                import com.collarmc.pounce.*;
+
+                public class Listener {
+                    public Object event;
+
+                    @Subscribe(value = Preference.CALLER, priority = 5)
+                    void exec(Event event) {
+                        this.event = event;
+                    }
+
+                    @Subscribe(value = Preference.CALLER, filter = Never.class)
+                    void never(Event event) {
+                        throw new IllegalStateException("filtered out");
+                    }
+
+                    public static class Event {}
+
+                    static class Never implements java.util.function.Predicate<Event> {
+                        @Override
+                        public boolean test(Event event) {
+                            return false;
+                        }
+                    }
+                }
+                """)) {
+            Class<?> listenerClass = classLoader.loadClass("test.Listener");
+            Class<?> indexClass = classLoader.loadClass("test.Listener" + SubscriberIndex.SUFFIX);
+            SubscriberMethod[] subscribers = ((SubscriberIndex) indexClass.getConstructor().newInstance()).subscribers();
+            Assert.assertEquals(2, subscribers.length);
+            Assert.assertEquals("exec", subscribers[0].name());
+            Assert.assertEquals(5, subscribers[0].priority());
+            Assert.assertNull(subscribers[0].filter());
+            Assert.assertNotNull(subscribers[1].filter());
+            Assert.assertEquals(indexClass, subscribers[0].accessor().getClass().getEnclosingClass());
+
+            Object listener = listenerClass.getConstructor().newInstance();
+            Object event = classLoader.loadClass("test.Listener$Event").getConstructor().newInstance();
+            EventBus eventBus = EventBus.builder(Runnable::run).exceptionHandler(SubscriberExceptionHandler.PROPAGATE).build();
+            eventBus.subscribe(listener);
+            eventBus.dispatch(event);
+            Field field = listenerClass.getField("event");
+            Assert.assertEquals(event, field.get(listener));
+        }
+    }
+
+    @Test
+    public void skipsPrivateSubscribers() throws Exception {
+        try (URLClassLoader classLoader = compile("test.PrivateListener", """
+                package test;
+
+                import com.collarmc.pounce.*;
+
+                public class PrivateListener {
+                    @Subscribe(Preference.CALLER)
+                    private void exec(Object event) {}
+                }
+                """)) {
+            try {
+                classLoader.loadClass("test.PrivateListener" + SubscriberIndex.SUFFIX);
+                Assert.fail("index should not have been generated");
+            } catch (ClassNotFoundException ignored) {}
+        }
+    }
+
+    private URLClassLoader compile(String className, String source) throws IOException {
+        Path sources = folder.newFolder().toPath();
+        Path classes = folder.newFolder().toPath();
+        Path file = sources.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString(), "-s", sources.toString()),
+                    null,
+                    fileManager.getJavaFileObjects(file.toFile()));
+            task.setProcessors(List.of(new SubscribeProcessor()));
+            Assert.assertTrue("compilation failed", task.call());
+        }
+        return new URLClassLoader(new URL[] {classes.toUri().toURL()}, getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,29 @@
+package com.collarmc.pounce;
+
+/**
+ * Optional base class for {@link Cancelable} events that keeps the canceled flag in a field,
+ * making the check after each listener a plain field read. Extend {@link PooledCancelable} for pooled events.
+ */
+public abstract class AbstractCancelable implements Cancelable {
+
+    private boolean canceled;
+
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    /**
+     * @return if a listener canceled the event during the current dispatch
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * Resets the flag once the dispatch completes
+     */
+    void clearCanceled() {
+        canceled = false;
+    }
+}
@@ -6,65 +6,68 @@ import org.objectweb.asm.Type;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.objectweb.asm.Opcodes.*;
 
-public abstract class MethodAccessor {
-    private static int ID = 0;
-    public static MethodAccessor generate(final Object handler, final Method handlerMethod, final Class<?> eventClass) {
+/**
+ * Generates a class calling the subscriber method directly and defines it in its own class loader.
+ * The generated class links against the listener class by name, so subscriber methods must be public and visible
+ * from the class loader that loaded pounce.
+ */
+final class AsmMethodAccessorFactory implements MethodAccessorFactory {
+
+    static final AsmMethodAccessorFactory INSTANCE = new AsmMethodAccessorFactory();
+
+    private static final AtomicInteger ID = new AtomicInteger();
+
+    private AsmMethodAccessorFactory() {}
+
+    @Override
+    public MethodAccessor create(final Method handlerMethod, final Class<?> eventClass) {
+        if (!Modifier.isPublic(handlerMethod.getModifiers())) {
+            throw new IllegalStateException("Subscriber method " + handlerMethod + " is private. Make this method public.");
+        }
         // inspired from Forge's ASMEventHandler
         // It would be nice to use a direct compiler here from generated source code
         // ...however some users may be running on a JRE which does not have a compiler
         // this limits us to generating bytecode directly.
         // There may be some library that could handle this in a more elegant way, will keep a lookout
         try {
-            final String className = "MethodAccessor$" + handler.getClass().getSimpleName() + "I" + handlerMethod.getName() + "ID" + ID++;
+            final String className = "MethodAccessor$" + handlerMethod.getDeclaringClass().getSimpleName() + "I" + handlerMethod.getName() + "ID" + ID.getAndIncrement();
             final String fullClassName = "pounce.generated." + className;
             final String desc = fullClassName.replace(".", "/");
             final ClassWriter classWriter = new ClassWriter(0);
 
             classWriter.visit(V1_8, ACC_PUBLIC | ACC_SUPER, desc, null, "com/collarmc/pounce/MethodAccessor", null);
             classWriter.visitSource(".dynamic", null);
-            classWriter.visitField(ACC_PUBLIC, "handlerInstance", "Ljava/lang/Object;", null, null).visitEnd();
-            MethodVisitor methodVisitor = classWriter.visitMethod(ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V", null, null);
+            MethodVisitor methodVisitor = classWriter.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
             methodVisitor.visitCode();
             methodVisitor.visitVarInsn(ALOAD, 0);
             methodVisitor.visitMethodInsn(INVOKESPECIAL, Type.getType(MethodAccessor.class).getInternalName(), "<init>", "()V", false);
-            methodVisitor.visitVarInsn(ALOAD, 0);
-            methodVisitor.visitVarInsn(ALOAD, 1);
-            methodVisitor.visitFieldInsn(PUTFIELD, desc, "handlerInstance", "Ljava/lang/Object;");
             methodVisitor.visitInsn(RETURN);
-            methodVisitor.visitMaxs(2, 2);
+            methodVisitor.visitMaxs(1, 1);
             methodVisitor.visitEnd();
-            methodVisitor = classWriter.visitMethod(ACC_PUBLIC, "executeEvent", Type.getMethodDescriptor(MethodAccessor.class.getDeclaredMethod("executeEvent", Object.class)), null, null);
+            methodVisitor = classWriter.visitMethod(ACC_PUBLIC, "executeEvent", Type.getMethodDescriptor(MethodAccessor.class.getDeclaredMethod("executeEvent", Object.class, Object.class)), null, null);
             methodVisitor.visitCode();
-            methodVisitor.visitVarInsn(ALOAD, 0);
-            methodVisitor.visitFieldInsn(GETFIELD, desc, "handlerInstance", "Ljava/lang/Object;");
-            methodVisitor.visitTypeInsn(CHECKCAST, handler.getClass().getName().replace('.', '/'));
             methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitTypeInsn(CHECKCAST, Type.getInternalName(handlerMethod.getDeclaringClass()));
+            methodVisitor.visitVarInsn(ALOAD, 2);
             methodVisitor.visitTypeInsn(CHECKCAST, eventClass.getName().replace('.', '/'));
             methodVisitor.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(handlerMethod.getDeclaringClass()), handlerMethod.getName(), Type.getMethodDescriptor(handlerMethod), false);
             methodVisitor.visitInsn(RETURN);
-            methodVisitor.visitMaxs(2, 2);
+            methodVisitor.visitMaxs(2, 3);
             methodVisitor.visitEnd();
             classWriter.visitEnd();
-            final ASMClassLoader[] classLoader = new ASMClassLoader[1];
-            AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
-                classLoader[0] = new ASMClassLoader();
-                return null;
-            });
-            final Class<?> accessorClass =  classLoader[0].define(fullClassName, classWriter.toByteArray());
-            return (MethodAccessor) accessorClass.getConstructor(Object.class).newInstance(handler);
+            final Class<?> accessorClass = new ASMClassLoader().define(fullClassName, classWriter.toByteArray());
+            return (MethodAccessor) accessorClass.getConstructor().newInstance();
         } catch (final Error | NoSuchMethodException | InstantiationException | IllegalAccessException |
                        InvocationTargetException e) {
             throw new RuntimeException(e);
         }
     }
 
-    public abstract void executeEvent(final Object event);
-
     private static class ASMClassLoader extends ClassLoader
     {
         private ASMClassLoader()
@@ -0,0 +1,170 @@
+package com.collarmc.pounce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches an event without waiting for {@link Preference#MAIN} or {@link Preference#POOL} listeners, completing a
+ * future once every listener has run. Listeners of cancelable events run one after another in priority order, each
+ * on the thread its preference asks for, with the next one started by whichever thread finished the previous.
+ * The future fails if an executor rejects a listener or a {@link BoundedExecutor} drops it, rather than never
+ * completing.
+ */
+final class AsyncDispatch implements BoundedExecutor.Droppable {
+
+    private final Object event;
+    private final ListenerInfo[] listenerInfos;
+    private final BiConsumer<Object, ListenerInfo> invoker;
+    private final Executor mainThread;
+    private final CompletableFuture<DispatchResult> future = new CompletableFuture<>();
+    /**
+     * Next listener to run, only touched by the thread currently running the chain
+     */
+    private int index;
+    /**
+     * Index of the listener the chain was last handed off to run on its own thread
+     */
+    private int handedOff = -1;
+
+    private AsyncDispatch(Object event, ListenerInfo[] listenerInfos, BiConsumer<Object, ListenerInfo> invoker, Executor mainThread) {
+        this.event = event;
+        this.listenerInfos = listenerInfos;
+        this.invoker = invoker;
+        this.mainThread = mainThread;
+    }
+
+    /**
+     * @param plan       of the event
+     * @param invoker    to invoke a listener with the event
+     * @param mainThread to run {@link Preference#MAIN} listeners on
+     * @return future completed once every listener has run or the event was canceled
+     */
+    static CompletableFuture<DispatchResult> dispatch(Object event, DispatchPlan plan, BiConsumer<Object, ListenerInfo> invoker, Consumer<Runnable> mainThread) {
+        if (plan.cancelable()) {
+            AsyncDispatch dispatch = new AsyncDispatch(event, plan.listeners(), invoker, mainThread::accept);
+            dispatch.run();
+            return dispatch.future;
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        Throwable failure = null;
+        for (ListenerInfo listenerInfo : plan.listeners()) {
+            Executor executor = executor(listenerInfo, mainThread::accept);
+            if (executor != null) {
+                Invocation invocation = new Invocation(event, listenerInfo, invoker);
+                try {
+                    executor.execute(invocation);
+                } catch (RejectedExecutionException e) {
+                    invocation.dropped(e);
+                }
+                pending.add(invocation.future);
+                continue;
+            }
+            try {
+                invoker.accept(event, listenerInfo);
+            } catch (RuntimeException | Error e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        DispatchResult result = new DispatchResult(event, null);
+        CompletableFuture<DispatchResult> future = CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> result);
+        if (failure != null) {
+            Throwable callerFailure = failure;
+            return future.thenCompose(ignored -> CompletableFuture.failedFuture(callerFailure));
+        }
+        return future;
+    }
+
+    /**
+     * @return the executor listenerInfo asks to be run on or null to run it on the current thread
+     */
+    private static Executor executor(ListenerInfo listenerInfo, Executor mainThread) {
+        return switch (listenerInfo.preference()) {
+            case MAIN -> mainThread;
+            case POOL -> listenerInfo.executor();
+            case CALLER, DISPATCH, UNSET -> null;
+        };
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (index < listenerInfos.length) {
+                ListenerInfo listenerInfo = listenerInfos[index];
+                Executor executor = executor(listenerInfo, mainThread);
+                if (executor != null && handedOff != index) {
+                    handedOff = index;
+                    executor.execute(this);
+                    return;
+                }
+                index++;
+                if (invokeAndCheckCanceled(listenerInfo)) {
+                    future.complete(new DispatchResult(event, listenerInfo.subscriberMethod()));
+                    return;
+                }
+            }
+            future.complete(new DispatchResult(event, null));
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void dropped(RejectedExecutionException reason) {
+        future.completeExceptionally(reason);
+    }
+
+    private boolean invokeAndCheckCanceled(ListenerInfo listenerInfo) {
+        if (CancelableState.inField(event)) {
+            try {
+                invoker.accept(event, listenerInfo);
+                return CancelableState.isCanceledField(event);
+            } finally {
+                CancelableState.clearField(event);
+            }
+        }
+        CancelableState state = CancelableState.current();
+        int frame = state.enter((Cancelable) event);
+        try {
+            invoker.accept(event, listenerInfo);
+            return state.isCanceled(frame);
+        } finally {
+            state.exit(frame);
+        }
+    }
+
+    /**
+     * Listener of a non-cancelable event running on another thread
+     */
+    private static final class Invocation implements BoundedExecutor.Droppable {
+        private final Object event;
+        private final ListenerInfo listenerInfo;
+        private final BiConsumer<Object, ListenerInfo> invoker;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Invocation(Object event, ListenerInfo listenerInfo, BiConsumer<Object, ListenerInfo> invoker) {
+            this.event = event;
+            this.listenerInfo = listenerInfo;
+            this.invoker = invoker;
+        }
+
+        @Override
+        public void run() {
+            try {
+                invoker.accept(event, listenerInfo);
+                future.complete(null);
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void dropped(RejectedExecutionException reason) {
+            future.completeExceptionally(reason);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.collarmc.pounce;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queues tasks in a fixed size queue drained by a limited number of workers running on another executor,
+ * so a flood of {@link Preference#POOL} events cannot grow the heap without bound.
+ * Note that {@link OverflowPolicy#BLOCK} can deadlock if listeners running on this executor dispatch pool events
+ * back into it.
+ */
+public final class BoundedExecutor implements Executor {
+
+    private static final Logger LOGGER = Logger.getLogger(BoundedExecutor.class.getName());
+
+    private final Executor delegate;
+    private final ArrayBlockingQueue<Runnable> queue;
+    private final int parallelism;
+    private final OverflowPolicy policy;
+    private final AtomicInteger workers = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Runnable worker = this::work;
+
+    /**
+     * @param delegate    to run workers on
+     * @param capacity    maximum number of queued tasks
+     * @param parallelism maximum number of workers draining the queue at once
+     * @param policy      what to do when the queue is full
+     */
+    public BoundedExecutor(Executor delegate, int capacity, int parallelism, OverflowPolicy policy) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.parallelism = parallelism;
+        this.policy = policy;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        switch (policy) {
+            case BLOCK:
+                try {
+                    queue.put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(task)) {
+                    Runnable oldest = queue.poll();
+                    if (oldest != null) {
+                        dropped.increment();
+                        if (oldest instanceof Droppable droppable) {
+                            droppable.dropped(new RejectedExecutionException("Dropped by a full " + BoundedExecutor.class.getSimpleName()));
+                        }
+                    }
+                }
+                break;
+            case RUN_ON_CALLER:
+                if (!queue.offer(task)) {
+                    task.run();
+                    return;
+                }
+                break;
+        }
+        startWorker();
+    }
+
+    /**
+     * @return number of tasks discarded by {@link OverflowPolicy#DROP_OLDEST}
+     */
+    public long droppedTasks() {
+        return dropped.sum();
+    }
+
+    /**
+     * Task that has to learn when {@link OverflowPolicy#DROP_OLDEST} discards it, to fail whatever waits for it
+     */
+    interface Droppable extends Runnable {
+        /**
+         * Called on the thread executing the task that displaced this one, instead of running it
+         */
+        void dropped(RejectedExecutionException reason);
+    }
+
+    private void startWorker() {
+        while (true) {
+            int running = workers.get();
+            if (running >= parallelism) {
+                return;
+            }
+            if (workers.compareAndSet(running, running + 1)) {
+                try {
+                    delegate.execute(worker);
+                } catch (RuntimeException e) {
+                    workers.decrementAndGet();
+                    throw e;
+                }
+                return;
+            }
+        }
+    }
+
+    private void work() {
+        try {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Problem running task", e);
+                }
+            }
+        } finally {
+            workers.decrementAndGet();
+            // a task may have been queued after the last poll while this worker still counted as running
+            if (!queue.isEmpty()) {
+                startWorker();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.collarmc.pounce;
+
+/**
+ * Cancelable event mixin
+ */
+public interface Cancelable {
+    /**
+     * Cancel the event from other listeneres.
+     * Only takes effect when called from a listener while the event is being dispatched on the same thread.
+     * Extend {@link AbstractCancelable} to track cancellation in a field instead.
+     */
+    default void cancel() {
+        CancelableState.cancel(this);
+    }
+}
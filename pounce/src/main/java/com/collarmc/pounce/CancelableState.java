@@ -0,0 +1,93 @@
+package com.collarmc.pounce;
+
+import java.util.Arrays;
+
+/**
+ * Manages the state of {@link Cancelable}'s for the dispatches running on the current thread.
+ * Each dispatch of a cancelable event pushes a frame that {@link Cancelable#cancel()} marks, so the state
+ * lives and dies with the dispatch rather than in a map shared by every bus and thread.
+ */
+final class CancelableState {
+
+    private static final ThreadLocal<CancelableState> STATE = ThreadLocal.withInitial(CancelableState::new);
+
+    private Cancelable[] events = new Cancelable[4];
+    private boolean[] canceled = new boolean[4];
+    private int depth;
+
+    private CancelableState() {}
+
+    /**
+     * @return the cancellation state of the current thread
+     */
+    static CancelableState current() {
+        return STATE.get();
+    }
+
+    /**
+     * Marks the innermost dispatch of cancelable on the current thread as canceled.
+     * Does nothing if cancelable is not being dispatched on this thread.
+     */
+    static void cancel(Cancelable cancelable) {
+        CancelableState state = STATE.get();
+        for (int i = state.depth - 1; i >= 0; i--) {
+            if (state.events[i] == cancelable) {
+                state.canceled[i] = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return if event keeps its canceled flag in a field instead, see {@link AbstractCancelable} and
+     * {@link PooledCancelable}
+     */
+    static boolean inField(Object event) {
+        return event instanceof AbstractCancelable || event instanceof PooledCancelable;
+    }
+
+    /**
+     * @return the flag of an event keeping it {@link #inField(Object) in a field}
+     */
+    static boolean isCanceledField(Object event) {
+        return event instanceof AbstractCancelable abstractCancelable ? abstractCancelable.isCanceled() : ((PooledCancelable) event).isCanceled();
+    }
+
+    /**
+     * Resets the flag of an event keeping it {@link #inField(Object) in a field} once its dispatch completes
+     */
+    static void clearField(Object event) {
+        if (event instanceof AbstractCancelable abstractCancelable) {
+            abstractCancelable.clearCanceled();
+        } else {
+            ((PooledCancelable) event).clearCanceled();
+        }
+    }
+
+    /**
+     * Starts tracking a dispatch of cancelable
+     * @return frame to pass to {@link #isCanceled(int)} and {@link #exit(int)}
+     */
+    int enter(Cancelable cancelable) {
+        if (depth == events.length) {
+            events = Arrays.copyOf(events, depth * 2);
+            canceled = Arrays.copyOf(canceled, depth * 2);
+        }
+        events[depth] = cancelable;
+        canceled[depth] = false;
+        return depth++;
+    }
+
+    boolean isCanceled(int frame) {
+        return canceled[frame];
+    }
+
+    /**
+     * Stops tracking the dispatch started by {@link #enter(Cancelable)}
+     */
+    void exit(int frame) {
+        events[frame] = null;
+        canceled[frame] = false;
+        depth = frame;
+    }
+}
@@ -0,0 +1,248 @@
+package com.collarmc.pounce;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Dispatches an event to a fixed list of {@link Preference#CALLER} and {@link Preference#DISPATCH} listeners through
+ * a generated hidden class that calls each of them in turn. Every accessor and target is a static final constant of
+ * the class, so each call site is monomorphic and the JIT can inline the whole chain instead of going through the
+ * megamorphic {@link MethodAccessor#executeEvent(Object, Object)} call in the dispatch loop.
+ */
+abstract class CompiledDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(CompiledDispatcher.class.getName());
+
+    private static final String SUPER_NAME = Type.getInternalName(CompiledDispatcher.class);
+    private static final String CLASS_NAME = SUPER_NAME + "$Chain";
+    private static final String ACCESSOR_DESC = Type.getDescriptor(MethodAccessor.class);
+    private static final String FILTER_DESC = Type.getDescriptor(Predicate.class);
+    private static final String CONSTRUCTOR_DESC = MethodType.methodType(void.class, ListenerInfo[].class).toMethodDescriptorString();
+    private static final String DISPATCH_DESC = MethodType.methodType(int.class, Object.class, CancelableState.class, int.class, FailureHandler.class).toMethodDescriptorString();
+    private static final String FAILED_DESC = MethodType.methodType(void.class, FailureHandler.class, int.class, Object.class, Throwable.class).toMethodDescriptorString();
+
+    /**
+     * Most listeners a chain is compiled for. Each takes at most 55 bytes of the dispatch method, with a filter and
+     * the cancellation check, which keeps it below the 8000 bytes HotSpot refuses to JIT compile
+     */
+    static final int MAX_LISTENERS = 128;
+
+    private final ListenerInfo[] listenerInfos;
+
+    protected CompiledDispatcher(ListenerInfo[] listenerInfos) {
+        this.listenerInfos = listenerInfos;
+    }
+
+    /**
+     * Invokes every listener until one cancels the event
+     * @param event          to dispatch
+     * @param state          of the dispatch if the event is {@link Cancelable} without keeping its flag
+     *                       {@link CancelableState#inField(Object) in a field}, else null
+     * @param frame          of the dispatch in state
+     * @param failureHandler to hand exceptions thrown by listeners to, passed per dispatch so the chain cached in a
+     *                       plan does not reference the bus
+     * @return index of the listener that canceled the event or -1
+     */
+    abstract int dispatch(Object event, CancelableState state, int frame, FailureHandler failureHandler);
+
+    /**
+     * Called by the generated chain when listener index threw
+     */
+    protected final void failed(FailureHandler failureHandler, int index, Object event, Throwable exception) {
+        failureHandler.failed(event, listenerInfos[index], exception);
+    }
+
+    /**
+     * Called by the generated chain after each listener of a cancelable event
+     */
+    protected static boolean isCanceled(Object event, CancelableState state, int frame) {
+        return state == null ? CancelableState.isCanceledField(event) : state.isCanceled(frame);
+    }
+
+    /**
+     * @param listenerInfos  to invoke in order, all preferring {@link Preference#CALLER} or {@link Preference#DISPATCH}
+     * @param cancelable     if the chain checks for cancellation after each listener
+     * @return the compiled chain
+     */
+    static CompiledDispatcher compile(ListenerInfo[] listenerInfos, boolean cancelable) {
+        // accessor, target and filter of each listener, read back by index in the static initializer
+        Object[] constants = new Object[listenerInfos.length * 3];
+        for (int i = 0; i < listenerInfos.length; i++) {
+            constants[i * 3] = listenerInfos[i].methodAccessor();
+            constants[i * 3 + 1] = listenerInfos[i].target();
+            constants[i * 3 + 2] = listenerInfos[i].filter();
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(generate(listenerInfos, cancelable), Arrays.asList(constants), true);
+            return (CompiledDispatcher) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, ListenerInfo[].class))
+                    .invoke(listenerInfos);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not compile dispatcher", e);
+        }
+    }
+
+    private static byte[] generate(ListenerInfo[] listenerInfos, boolean cancelable) {
+        int listeners = listenerInfos.length;
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        classWriter.visit(V21, ACC_FINAL | ACC_SUPER, CLASS_NAME, null, SUPER_NAME, null);
+        for (int i = 0; i < listeners; i++) {
+            classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "ACCESSOR" + i, ACCESSOR_DESC, null, null).visitEnd();
+            classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "TARGET" + i, "Ljava/lang/Object;", null, null).visitEnd();
+            if (listenerInfos[i].filter() != null) {
+                classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "FILTER" + i, FILTER_DESC, null, null).visitEnd();
+            }
+        }
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        methodVisitor.visitCode();
+        for (int i = 0; i < listeners; i++) {
+            loadConstant(methodVisitor, i * 3, MethodAccessor.class);
+            methodVisitor.visitFieldInsn(PUTSTATIC, CLASS_NAME, "ACCESSOR" + i, ACCESSOR_DESC);
+            loadConstant(methodVisitor, i * 3 + 1, Object.class);
+            methodVisitor.visitFieldInsn(PUTSTATIC, CLASS_NAME, "TARGET" + i, "Ljava/lang/Object;");
+            if (listenerInfos[i].filter() != null) {
+                loadConstant(methodVisitor, i * 3 + 2, Predicate.class);
+                methodVisitor.visitFieldInsn(PUTSTATIC, CLASS_NAME, "FILTER" + i, FILTER_DESC);
+            }
+        }
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = classWriter.visitMethod(0, "<init>", CONSTRUCTOR_DESC, null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", CONSTRUCTOR_DESC, false);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        // int dispatch(Object event, CancelableState state, int frame, FailureHandler failureHandler)
+        methodVisitor = classWriter.visitMethod(0, "dispatch", DISPATCH_DESC, null, null);
+        methodVisitor.visitCode();
+        for (int i = 0; i < listeners; i++) {
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            Label next = new Label();
+            Label skip = new Label();
+            methodVisitor.visitTryCatchBlock(start, end, handler, Type.getInternalName(RuntimeException.class));
+            methodVisitor.visitTryCatchBlock(start, end, handler, Type.getInternalName(LinkageError.class));
+            methodVisitor.visitLabel(start);
+            if (listenerInfos[i].filter() != null) {
+                // skip the listener, and the cancellation check as it cannot have canceled the event
+                Label matches = new Label();
+                methodVisitor.visitFieldInsn(GETSTATIC, CLASS_NAME, "FILTER" + i, FILTER_DESC);
+                methodVisitor.visitVarInsn(ALOAD, 1);
+                methodVisitor.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Predicate.class), "test", "(Ljava/lang/Object;)Z", true);
+                methodVisitor.visitJumpInsn(IFNE, matches);
+                methodVisitor.visitJumpInsn(GOTO, skip);
+                methodVisitor.visitLabel(matches);
+            }
+            methodVisitor.visitFieldInsn(GETSTATIC, CLASS_NAME, "ACCESSOR" + i, ACCESSOR_DESC);
+            methodVisitor.visitFieldInsn(GETSTATIC, CLASS_NAME, "TARGET" + i, "Ljava/lang/Object;");
+            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(MethodAccessor.class), "executeEvent", "(Ljava/lang/Object;Ljava/lang/Object;)V", false);
+            methodVisitor.visitLabel(end);
+            methodVisitor.visitJumpInsn(GOTO, next);
+            methodVisitor.visitLabel(handler);
+            methodVisitor.visitVarInsn(ASTORE, 5);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitVarInsn(ALOAD, 4);
+            methodVisitor.visitLdcInsn(i);
+            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitVarInsn(ALOAD, 5);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, SUPER_NAME, "failed", FAILED_DESC, false);
+            methodVisitor.visitLabel(next);
+            if (cancelable) {
+                Label notCanceled = new Label();
+                methodVisitor.visitVarInsn(ALOAD, 1);
+                methodVisitor.visitVarInsn(ALOAD, 2);
+                methodVisitor.visitVarInsn(ILOAD, 3);
+                methodVisitor.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "isCanceled", "(Ljava/lang/Object;" + Type.getDescriptor(CancelableState.class) + "I)Z", false);
+                methodVisitor.visitJumpInsn(IFEQ, notCanceled);
+                methodVisitor.visitLdcInsn(i);
+                methodVisitor.visitInsn(IRETURN);
+                methodVisitor.visitLabel(notCanceled);
+            }
+            methodVisitor.visitLabel(skip);
+        }
+        methodVisitor.visitInsn(ICONST_M1);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Pushes element index of the class data list, cast to type
+     */
+    private static void loadConstant(MethodVisitor methodVisitor, int index, Class<?> type) {
+        methodVisitor.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+        methodVisitor.visitLdcInsn("_");
+        methodVisitor.visitLdcInsn(Type.getType(type));
+        methodVisitor.visitLdcInsn(index);
+        methodVisitor.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "classDataAt", "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;", false);
+        if (type != Object.class) {
+            methodVisitor.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+    /**
+     * Handles an exception thrown by a listener of the chain
+     */
+    @FunctionalInterface
+    interface FailureHandler {
+        void failed(Object event, ListenerInfo listenerInfo, Throwable exception);
+    }
+
+    /**
+     * Counts dispatches of a plan and compiles its chain once the plan is hot
+     */
+    static final class Compilation {
+        private final ListenerInfo[] listenerInfos;
+        private final boolean cancelable;
+        private final int threshold;
+        /**
+         * Racy on purpose, lost updates only delay compilation and it stops being written once compiled
+         */
+        private int dispatches;
+        private volatile CompiledDispatcher dispatcher;
+
+        Compilation(ListenerInfo[] listenerInfos, boolean cancelable, int threshold) {
+            this.listenerInfos = listenerInfos;
+            this.cancelable = cancelable;
+            this.threshold = threshold;
+        }
+
+        /**
+         * @return the compiled chain or null while the plan is not hot yet
+         */
+        CompiledDispatcher dispatcher() {
+            CompiledDispatcher compiled = dispatcher;
+            if (compiled == null && ++dispatches == threshold) {
+                try {
+                    compiled = compile(listenerInfos, cancelable);
+                    dispatcher = compiled;
+                } catch (IllegalStateException e) {
+                    // keep dispatching through the loop
+                    LOGGER.log(Level.WARNING, "Could not compile dispatcher, using the dispatch loop", e);
+                }
+            }
+            return compiled;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.collarmc.pounce;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Collects invocation counts, latencies, exceptions and cancellations per subscriber method and per event class.
+ * Counters are striped so listeners running on many threads do not contend on them.
+ * <pre>
+ * DispatchMetrics metrics = new DispatchMetrics(Duration.ofMillis(5), DispatchMetrics.SlowListener.LOG);
+ * EventBus eventBus = EventBus.builder(mainThread).instrument(metrics).build();
+ * </pre>
+ */
+public final class DispatchMetrics implements InvocationListener {
+
+    private static final Logger LOGGER = Logger.getLogger(DispatchMetrics.class.getName());
+
+    private final Map<SubscriberMethod, Counters> bySubscriberMethod = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counters> byEventType = new ConcurrentHashMap<>();
+    private final long slowNanos;
+    private final SlowListener slowListener;
+
+    /**
+     * Collects metrics without reporting slow listeners
+     */
+    public DispatchMetrics() {
+        this.slowNanos = Long.MAX_VALUE;
+        this.slowListener = null;
+    }
+
+    /**
+     * @param slowThreshold invocations taking longer than this are reported to slowListener
+     * @param slowListener to report slow invocations to
+     */
+    public DispatchMetrics(Duration slowThreshold, SlowListener slowListener) {
+        this.slowNanos = slowThreshold.toNanos();
+        this.slowListener = slowListener;
+    }
+
+    @Override
+    public void invoked(SubscriberMethod subscriberMethod, Object event, long nanos, Throwable failure) {
+        bySubscriberMethod.computeIfAbsent(subscriberMethod, ignored -> new Counters()).invoked(nanos, failure);
+        byEventType.computeIfAbsent(event.getClass(), ignored -> new Counters()).invoked(nanos, failure);
+        if (nanos > slowNanos) {
+            slowListener.slow(subscriberMethod, event, nanos);
+        }
+    }
+
+    @Override
+    public void canceled(SubscriberMethod subscriberMethod, Object event) {
+        bySubscriberMethod.computeIfAbsent(subscriberMethod, ignored -> new Counters()).cancellations.increment();
+        byEventType.computeIfAbsent(event.getClass(), ignored -> new Counters()).cancellations.increment();
+    }
+
+    /**
+     * @return the metrics collected so far, subscriber methods sorted by total time spent in them
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(snapshot(bySubscriberMethod), snapshot(byEventType));
+    }
+
+    /**
+     * Drops everything collected so far
+     */
+    public void reset() {
+        bySubscriberMethod.clear();
+        byEventType.clear();
+    }
+
+    private static <K> Map<K, Stats> snapshot(Map<K, Counters> counters) {
+        Map<K, Stats> stats = new LinkedHashMap<>();
+        counters.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().stats()))
+                .sorted(Map.Entry.<K, Stats>comparingByValue(Comparator.comparingLong(Stats::totalNanos)).reversed())
+                .forEach(entry -> stats.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Reports invocations that took longer than the threshold
+     */
+    @FunctionalInterface
+    public interface SlowListener {
+        /**
+         * Logs a warning naming the subscriber method
+         */
+        SlowListener LOG = (subscriberMethod, event, nanos) ->
+                LOGGER.warning("Subscriber method " + subscriberMethod + " took " + Duration.ofNanos(nanos).toMillis() + "ms handling " + event.getClass().getName());
+
+        void slow(SubscriberMethod subscriberMethod, Object event, long nanos);
+    }
+
+    /**
+     * Metrics at the time of {@link #snapshot()}
+     * @param subscriberMethods stats per subscriber method, slowest first
+     * @param eventTypes stats per concrete event class, slowest first
+     */
+    public record Snapshot(Map<SubscriberMethod, Stats> subscriberMethods, Map<Class<?>, Stats> eventTypes) {
+        /**
+         * Writes the snapshot in the Prometheus text exposition format
+         * @param out to write to
+         */
+        public void export(Appendable out) throws IOException {
+            export(out, "pounce_listener", "method", subscriberMethods);
+            export(out, "pounce_event", "type", eventTypes);
+        }
+
+        private static void export(Appendable out, String prefix, String label, Map<?, Stats> stats) throws IOException {
+            for (Map.Entry<?, Stats> entry : stats.entrySet()) {
+                String labels = "{" + label + "=\"" + entry.getKey().toString().replace("\\", "\\\\").replace("\"", "\\\"") + "\"} ";
+                Stats value = entry.getValue();
+                out.append(prefix).append("_invocations_total").append(labels).append(Long.toString(value.invocations())).append('\n');
+                out.append(prefix).append("_nanos_total").append(labels).append(Long.toString(value.totalNanos())).append('\n');
+                out.append(prefix).append("_nanos_max").append(labels).append(Long.toString(value.maxNanos())).append('\n');
+                out.append(prefix).append("_exceptions_total").append(labels).append(Long.toString(value.exceptions())).append('\n');
+                out.append(prefix).append("_cancellations_total").append(labels).append(Long.toString(value.cancellations())).append('\n');
+            }
+        }
+    }
+
+    /**
+     * @param invocations   number of invocations
+     * @param totalNanos    time spent in all invocations
+     * @param maxNanos      time spent in the slowest invocation
+     * @param exceptions    number of invocations that threw
+     * @param cancellations number of times the event was canceled
+     */
+    public record Stats(long invocations, long totalNanos, long maxNanos, long exceptions, long cancellations) {
+        public long averageNanos() {
+            return invocations == 0 ? 0 : totalNanos / invocations;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder exceptions = new LongAdder();
+        final LongAdder cancellations = new LongAdder();
+
+        void invoked(long nanos, Throwable failure) {
+            invocations.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (failure != null) {
+                exceptions.increment();
+            }
+        }
+
+        Stats stats() {
+            return new Stats(invocations.sum(), totalNanos.sum(), maxNanos.get(), exceptions.sum(), cancellations.sum());
+        }
+    }
+}
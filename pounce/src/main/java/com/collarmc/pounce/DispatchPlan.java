@@ -0,0 +1,119 @@
+package com.collarmc.pounce;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Everything needed to dispatch an event of one concrete class. Plans are cached by the bus, so nothing a plan holds
+ * may reference the bus itself, see {@link DispatchPlans}.
+ */
+final class DispatchPlan {
+
+    private final ListenerInfo[] listeners;
+    private final boolean cancelable;
+    private final Function<Object, ?> coalescing;
+    private final RingBuffer ringBuffer;
+    private final CompiledDispatcher.Compilation compilation;
+    private final Keyed keyed;
+    private final boolean sticky;
+    private final boolean parallelizable;
+    private final boolean parallelByDefault;
+    /**
+     * Created by the first parallel dispatch, racy as creating it twice only loses an estimate
+     */
+    private volatile ParallelDispatch parallel;
+
+    /**
+     * @param listeners   listeners of the class and all of its supertypes, sorted by priority
+     * @param cancelable  if the event class is {@link Cancelable}
+     * @param coalescing  extracts the key batched main thread invocations are coalesced by, or null
+     * @param ringBuffer  the event is published to instead of dispatched by the caller, or null
+     * @param compilation compiling the listeners into a single chain once the plan is hot, or null if it cannot be
+     * @param keyed       plans for the keys of keyed listeners, or null if there are none
+     * @param sticky      if the latest event of the class is kept to replay it to new listeners
+     * @param parallel    if the event class asks for its listeners to run in parallel on every dispatch
+     */
+    DispatchPlan(ListenerInfo[] listeners, boolean cancelable, Function<Object, ?> coalescing, RingBuffer ringBuffer,
+                 CompiledDispatcher.Compilation compilation, Keyed keyed, boolean sticky, boolean parallel) {
+        this.listeners = listeners;
+        this.cancelable = cancelable;
+        this.coalescing = coalescing;
+        this.ringBuffer = ringBuffer;
+        this.compilation = compilation;
+        this.keyed = keyed;
+        this.sticky = sticky;
+        int inline = 0;
+        for (ListenerInfo listenerInfo : listeners) {
+            if (listenerInfo.runsOnCaller()) {
+                inline++;
+            }
+        }
+        this.parallelizable = !cancelable && inline >= 2;
+        this.parallelByDefault = parallel && parallelizable;
+    }
+
+    ListenerInfo[] listeners() {
+        return listeners;
+    }
+
+    boolean cancelable() {
+        return cancelable;
+    }
+
+    Function<Object, ?> coalescing() {
+        return coalescing;
+    }
+
+    RingBuffer ringBuffer() {
+        return ringBuffer;
+    }
+
+    CompiledDispatcher.Compilation compilation() {
+        return compilation;
+    }
+
+    Keyed keyed() {
+        return keyed;
+    }
+
+    boolean sticky() {
+        return sticky;
+    }
+
+    /**
+     * @return if every dispatch runs the listeners on the calling thread in parallel
+     */
+    boolean parallelByDefault() {
+        return parallelByDefault;
+    }
+
+    /**
+     * @param pool to fork listeners into
+     * @return parallel dispatch of the listeners running on the calling thread, or null for cancelable events and
+     * while fewer than two listeners run on the calling thread
+     */
+    ParallelDispatch parallel(ForkJoinPool pool) {
+        if (!parallelizable) {
+            return null;
+        }
+        ParallelDispatch parallelDispatch = parallel;
+        if (parallelDispatch == null) {
+            parallelDispatch = new ParallelDispatch(listeners, pool);
+            parallel = parallelDispatch;
+        }
+        return parallelDispatch;
+    }
+
+    /**
+     * Keys keyed listeners of the event class subscribed with. The plan of a key is built by the bus the first time
+     * an event with the key is dispatched, and only that plan is dropped when a listener of the key changes.
+     * @param key     extracts the key of an event
+     * @param unkeyed listeners of the class and its supertypes without a key, sorted by priority
+     * @param keys    keys with listeners when the plan was built
+     * @param plans   the unkeyed listeners along with those of the key, which run after unkeyed listeners of the same
+     *                priority, by key
+     */
+    record Keyed(Function<Object, ?> key, ListenerInfo[] unkeyed, Set<Object> keys, Map<Object, DispatchPlan> plans) {}
+}
@@ -0,0 +1,112 @@
+package com.collarmc.pounce;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches a {@link DispatchPlan} per concrete event class so dispatch never walks the type hierarchy.
+ * Plans are built lazily under the bus lock and dropped again when a listener of one of its supertypes changes,
+ * found through an index of the cached classes by supertype so a change never walks every plan.
+ * <p>
+ * Plans are kept in a map owned by the bus rather than a {@link ClassValue}. Plans reach the bus through their
+ * listeners, and a value reaching its own ClassValue keeps both alive for as long as the event class is loaded, so
+ * every discarded bus would stay in memory. The map holds event classes strongly until their plans are invalidated
+ * or the bus is closed.
+ */
+final class DispatchPlans {
+
+    private final Object lock;
+    private final Function<Class<?>, DispatchPlan> planner;
+    private final Map<Class<?>, DispatchPlan> byClass = new ConcurrentHashMap<>();
+    /**
+     * Cached event classes by each of their supertypes, including themselves, guarded by the lock.
+     * Entries of classes whose plan was dropped through another supertype linger until that supertype changes.
+     */
+    private final Map<Class<?>, Set<Class<?>>> dependents = new HashMap<>();
+
+    /**
+     * @param lock    guarding the listeners the planner reads
+     * @param planner to build the plan of a concrete event class
+     */
+    DispatchPlans(Object lock, Function<Class<?>, DispatchPlan> planner) {
+        this.lock = lock;
+        this.planner = planner;
+    }
+
+    /**
+     * @return the plan of eventClass
+     */
+    DispatchPlan get(Class<?> eventClass) {
+        DispatchPlan plan = byClass.get(eventClass);
+        if (plan == null) {
+            synchronized (lock) {
+                plan = byClass.get(eventClass);
+                if (plan == null) {
+                    plan = planner.apply(eventClass);
+                    byClass.put(eventClass, plan);
+                    for (Class<?> type : EventBus.supertypes(eventClass)) {
+                        dependents.computeIfAbsent(type, key -> new HashSet<>()).add(eventClass);
+                    }
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Drops the plans of every event class that is a subtype of one of eventTypes.
+     * Must be called holding the lock after the listeners have changed.
+     */
+    void invalidate(Collection<Class<?>> eventTypes) {
+        for (Class<?> eventType : eventTypes) {
+            Set<Class<?>> eventClasses = dependents.remove(eventType);
+            if (eventClasses != null) {
+                for (Class<?> eventClass : eventClasses) {
+                    byClass.remove(eventClass);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the plans of key for event classes that are subtypes of one of eventTypes, or the whole plans of classes
+     * that had no listener with the key yet. Must be called holding the lock after listeners with key have changed.
+     * @param key of the changed listeners, or null to drop the whole plans
+     */
+    void invalidate(Collection<Class<?>> eventTypes, Object key) {
+        if (key == null) {
+            invalidate(eventTypes);
+            return;
+        }
+        for (Class<?> eventType : eventTypes) {
+            Set<Class<?>> eventClasses = dependents.get(eventType);
+            if (eventClasses == null) {
+                continue;
+            }
+            for (Iterator<Class<?>> iterator = eventClasses.iterator(); iterator.hasNext(); ) {
+                Class<?> eventClass = iterator.next();
+                DispatchPlan plan = byClass.get(eventClass);
+                if (plan != null && plan.keyed() != null && plan.keyed().keys().contains(key)) {
+                    plan.keyed().plans().remove(key);
+                } else {
+                    byClass.remove(eventClass);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every plan. Must be called holding the lock.
+     */
+    void clear() {
+        byClass.clear();
+        dependents.clear();
+    }
+}
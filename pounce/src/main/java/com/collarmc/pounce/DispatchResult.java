@@ -0,0 +1,15 @@
+package com.collarmc.pounce;
+
+/**
+ * Outcome of {@link EventDispatcher#dispatchAsync(Object)}
+ * @param event      the dispatched event
+ * @param canceledBy the listener that canceled the event or null if it ran to completion
+ */
+public record DispatchResult(Object event, SubscriberMethod canceledBy) {
+    /**
+     * @return if a listener canceled the event
+     */
+    public boolean canceled() {
+        return canceledBy != null;
+    }
+}
@@ -0,0 +1,1304 @@
+package com.collarmc.pounce;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * A very simple event bus
+ */
+public final class EventBus implements EventDispatcher, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+    /**
+     * Shared by every {@link #dispatch(Object)} so dispatching does not capture a new callback per event
+     */
+    private static final CancelableCallback WARN_CANCELED = event -> {
+        LOGGER.warning("Event " + event.getClass().getName() + " was canceled without registering a callback in dispatch");
+    };
+    private static final EventBus[] NO_SCOPES = new EventBus[0];
+
+    private final Object lock = new Object();
+    /**
+     * Listeners by the event type they subscribed to, guarded by {@link #lock}
+     */
+    private final Map<Class<?>, ListenerList> listeners = new HashMap<>();
+    /**
+     * Listeners subscribed with a key by the event type they subscribed to and their key, guarded by {@link #lock}
+     */
+    private final Map<Class<?>, Map<Object, ListenerList>> keyedListeners = new HashMap<>();
+    /**
+     * Nodes of the listeners registered by each subscribed object, or its {@link WeakListener} if it was subscribed
+     * weakly, by identity, guarded by {@link #lock}. Lets unsubscribe unlink exactly the listeners of the object.
+     */
+    private final Map<Object, ListenerList.Node[]> subscriptions = new IdentityHashMap<>();
+    /**
+     * Weak subscriptions by the identity hash code of their listener, guarded by {@link #lock}
+     */
+    private final Map<Integer, List<WeakListener>> weakListeners = new HashMap<>();
+    /**
+     * Held by the bus as {@link WeakListener} only references it weakly
+     */
+    private final Consumer<WeakListener> pruner = this::prune;
+    /**
+     * Passed to compiled chains on every dispatch, so the chains cached in plans do not reference the bus
+     */
+    private final CompiledDispatcher.FailureHandler failureHandler = this::failed;
+    /**
+     * Passed to parallel dispatch for the same reason
+     */
+    private final BiConsumer<Object, ListenerInfo> invoker = this::dispatch;
+    private final DispatchPlans plans = new DispatchPlans(lock, this::createPlan);
+    private final Consumer<Runnable> mainThreadConsumer;
+    private final SubscriberMethods subscriberMethods;
+    /**
+     * Queue of main thread work when batching is enabled, otherwise null
+     */
+    private final MainThreadBatch mainThreadBatch;
+    private final Map<Class<?>, Function<Object, ?>> coalescing;
+    private final Map<Class<?>, Function<Object, ?>> keys;
+    private final Set<Class<?>> stickyTypes;
+    private final StickyEvents stickyEvents;
+    private final Executor executor;
+    private final Map<String, Executor> executors;
+    private final Map<Class<?>, RingBuffer> ringBuffers = new HashMap<>();
+    /**
+     * Observes every invocation when instrumentation is enabled, otherwise null
+     */
+    private final InvocationListener invocationListener;
+    private final SubscriberExceptionHandler exceptionHandler;
+    /**
+     * Number of strikes, exceptions or invocations over {@link #latencyBudgetNanos}, that quarantine a listener,
+     * or 0 to never quarantine
+     */
+    private final int maxStrikes;
+    private final long latencyBudgetNanos;
+    /**
+     * Strikes against each listener so far, guarded by {@link #lock}
+     */
+    private final Map<ListenerInfo, Integer> strikes = new IdentityHashMap<>();
+    /**
+     * If invocations have to be timed, for instrumentation or the latency budget
+     */
+    private final boolean timed;
+    private final int compileThreshold;
+    private final ForkJoinPool parallelPool;
+    /**
+     * Sees every dispatched event when recording, otherwise null
+     */
+    private final EventRecorder recorder;
+    private final Map<Class<?>, EventPool<?>> pools;
+    private final int maxMainThreadBatch;
+    /**
+     * Bus this is a scope of, see {@link #scope()}, or null
+     */
+    private final EventBus parent;
+    /**
+     * Open scopes events are passed on to after the listeners of this bus, replaced wholesale under {@link #lock}
+     */
+    private volatile EventBus[] scopes = NO_SCOPES;
+    /**
+     * Guarded by {@link #lock}
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new EventBus
+     * @param mainThreadConsumer to run task on the main thread
+     */
+    public EventBus(Consumer<Runnable> mainThreadConsumer) {
+        this(builder(mainThreadConsumer));
+    }
+
+    /**
+     * Creates a new EventBus
+     * @param mainThreadConsumer to run task on the main thread
+     * @param accessorFactory to create the accessors invoking subscriber methods
+     */
+    public EventBus(Consumer<Runnable> mainThreadConsumer, MethodAccessorFactory accessorFactory) {
+        this(builder(mainThreadConsumer).accessorFactory(accessorFactory));
+    }
+
+    private EventBus(Builder builder) {
+        this.parent = null;
+        this.mainThreadConsumer = builder.mainThreadConsumer;
+        this.subscriberMethods = SubscriberMethods.forFactory(builder.accessorFactory);
+        this.maxMainThreadBatch = builder.maxMainThreadBatch;
+        this.mainThreadBatch = maxMainThreadBatch > 0 ? new MainThreadBatch(mainThreadConsumer, this::dispatch, maxMainThreadBatch) : null;
+        this.coalescing = Map.copyOf(builder.coalescing);
+        this.keys = Map.copyOf(builder.keys);
+        this.stickyTypes = Set.copyOf(builder.stickyTypes);
+        this.stickyEvents = new StickyEvents(builder.stickyCapacity);
+        this.executor = builder.executor;
+        this.executors = Map.copyOf(builder.executors);
+        this.invocationListener = builder.invocationListener;
+        this.exceptionHandler = builder.exceptionHandler;
+        this.maxStrikes = builder.maxStrikes;
+        this.latencyBudgetNanos = builder.latencyBudget == null ? Long.MAX_VALUE : builder.latencyBudget.toNanos();
+        this.timed = invocationListener != null || builder.latencyBudget != null;
+        this.compileThreshold = builder.compileThreshold;
+        this.parallelPool = builder.parallelPool;
+        this.recorder = builder.recorder;
+        Map<Class<?>, EventPool<?>> pools = new HashMap<>();
+        builder.pools.forEach((eventType, config) -> pools.put(eventType, new EventPool<>(config.factory(), config.capacity())));
+        this.pools = Map.copyOf(pools);
+        builder.ringBuffers.forEach((eventType, config) -> ringBuffers.put(eventType, new RingBuffer("pounce-" + eventType.getSimpleName(),
+                config.capacity(), config.waitStrategy(), config.consumers(), this::consume)));
+    }
+
+    /**
+     * Creates a scope of parent with the same configuration, except that it has no ring buffers of its own
+     */
+    private EventBus(EventBus parent) {
+        this.parent = parent;
+        this.mainThreadConsumer = parent.mainThreadConsumer;
+        this.subscriberMethods = parent.subscriberMethods;
+        this.maxMainThreadBatch = parent.maxMainThreadBatch;
+        this.mainThreadBatch = maxMainThreadBatch > 0 ? new MainThreadBatch(mainThreadConsumer, this::dispatch, maxMainThreadBatch) : null;
+        this.coalescing = parent.coalescing;
+        this.keys = parent.keys;
+        this.stickyTypes = parent.stickyTypes;
+        this.stickyEvents = new StickyEvents(parent.stickyEvents.capacity());
+        this.executor = parent.executor;
+        this.executors = parent.executors;
+        this.invocationListener = parent.invocationListener;
+        this.exceptionHandler = parent.exceptionHandler;
+        this.maxStrikes = parent.maxStrikes;
+        this.latencyBudgetNanos = parent.latencyBudgetNanos;
+        this.timed = parent.timed;
+        this.compileThreshold = parent.compileThreshold;
+        this.parallelPool = parent.parallelPool;
+        this.recorder = parent.recorder;
+        this.pools = parent.pools;
+    }
+
+    /**
+     * @param mainThreadConsumer to run task on the main thread
+     * @return builder for an EventBus
+     */
+    public static Builder builder(Consumer<Runnable> mainThreadConsumer) {
+        return new Builder(mainThreadConsumer);
+    }
+
+    /**
+     * Registers an object to receiving events
+     */
+    public void subscribe(Object listener) {
+        doSubscribe(listener, false, null);
+    }
+
+    /**
+     * Registers an object to receive only events with the given key, as extracted by the function registered with
+     * {@link Builder#keyedBy(Class, Function)} for the event type. Dispatch looks up the listeners of an event's key
+     * directly instead of invoking every listener to have it check the key itself.
+     * Events of types without a key extractor are not passed to the listener at all.
+     * @param listener to register
+     * @param key of the events it receives
+     */
+    public void subscribe(Object listener, Object key) {
+        doSubscribe(listener, false, Objects.requireNonNull(key, "key"));
+    }
+
+    /**
+     * Registers an object to receiving events without keeping it alive. Once the listener has been garbage collected
+     * it is unsubscribed automatically, so listeners that are never unsubscribed explicitly do not leak.
+     */
+    public void subscribeWeak(Object listener) {
+        doSubscribe(listener, true, null);
+    }
+
+    /**
+     * Takes a free event of exactly eventType from the pool of the calling thread, or creates one if it has none.
+     * Dispatching the event hands it back, it goes back to the pool once every listener is done with it.
+     * The event has to be dispatched exactly once and must not be used after that.
+     * @param eventType registered with {@link Builder#pool(Class, Supplier, int)}
+     * @return the event, reset by {@link PooledEvent#reset()} if it was used before
+     * @throws IllegalStateException if eventType has no pool
+     */
+    public <T extends PooledEvent> T acquire(Class<T> eventType) {
+        EventPool<?> pool = pools.get(eventType);
+        if (pool == null) {
+            throw new IllegalStateException("No pool registered for " + eventType.getName());
+        }
+        return eventType.cast(pool.acquire());
+    }
+
+    /**
+     * Opens a scope of this bus, such as for a session or a world. Every event dispatched on this bus is passed on
+     * to the listeners of its open scopes after its own listeners, unless one of them canceled it. Listeners are
+     * subscribed to the scope instead of this bus, so they do not add to the cost of dispatching to this bus once the
+     * scope is closed, and closing the scope drops all of them at once instead of unsubscribing them one by one.
+     * Events dispatched on the scope itself only reach the scope and its own scopes.
+     * <p>
+     * Scopes share the configuration of this bus, but not its ring buffers or quarantine strikes. Sticky events are
+     * kept by the bus they were dispatched on, and replayed to listeners of that bus and of its scopes, so sticky
+     * events of a scope never reach listeners of its parent or of other scopes.
+     * @return the scope
+     * @throws IllegalStateException if this bus is closed
+     */
+    public EventBus scope() {
+        EventBus scope = new EventBus(this);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Cannot open a scope of a closed bus");
+            }
+            EventBus[] open = Arrays.copyOf(scopes, scopes.length + 1);
+            open[scopes.length] = scope;
+            scopes = open;
+        }
+        return scope;
+    }
+
+    /**
+     * Unregisters a listener from receiving events.
+     */
+    public void unsubscribe(Object listener) {
+        synchronized (lock) {
+            ListenerList.Node[] subscribed = subscriptions.remove(listener);
+            if (subscribed == null) {
+                WeakListener weakListener = removeWeakListener(listener);
+                if (weakListener == null) {
+                    return;
+                }
+                subscribed = subscriptions.remove(weakListener);
+            }
+            remove(subscribed);
+        }
+    }
+
+    /**
+     * Unlinks the listeners of a subscription. Must be called holding the lock.
+     */
+    private void remove(ListenerList.Node[] subscribed) {
+        Set<Class<?>> changed = new HashSet<>();
+        for (ListenerList.Node node : subscribed) {
+            strikes.remove(node.listenerInfo);
+            unlink(node);
+            changed.add(node.listenerInfo.eventType());
+        }
+        // every listener of a subscription has the same key
+        plans.invalidate(changed, subscribed[0].listenerInfo.key());
+    }
+
+    private void unlink(ListenerList.Node node) {
+        if (!node.unlink()) {
+            return;
+        }
+        Class<?> eventType = node.listenerInfo.eventType();
+        Object key = node.listenerInfo.key();
+        if (key == null) {
+            listeners.remove(eventType, node.list);
+            return;
+        }
+        Map<Object, ListenerList> byKey = keyedListeners.get(eventType);
+        if (byKey.remove(key, node.list) && byKey.isEmpty()) {
+            keyedListeners.remove(eventType);
+        }
+    }
+
+    /**
+     * @return the plan of event's key, built the first time an event with the key is dispatched, or plan if no
+     * listener subscribed with the key
+     */
+    private DispatchPlan forEvent(DispatchPlan plan, Object event) {
+        DispatchPlan.Keyed keyed = plan.keyed();
+        if (keyed == null) {
+            return plan;
+        }
+        Object key = keyed.key().apply(event);
+        if (key == null || !keyed.keys().contains(key)) {
+            return plan;
+        }
+        DispatchPlan keyPlan = keyed.plans().get(key);
+        if (keyPlan == null) {
+            synchronized (lock) {
+                keyPlan = keyed.plans().computeIfAbsent(key, ignored -> createPlan(event.getClass(), keyed, key));
+            }
+        }
+        return keyPlan;
+    }
+
+    /**
+     * @return the weak reference listener was subscribed through or null if it is not subscribed weakly
+     */
+    private WeakListener findWeakListener(Object listener) {
+        List<WeakListener> candidates = weakListeners.get(System.identityHashCode(listener));
+        if (candidates != null) {
+            for (WeakListener candidate : candidates) {
+                if (candidate.get() == listener) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private WeakListener removeWeakListener(Object listener) {
+        WeakListener weakListener = findWeakListener(listener);
+        if (weakListener != null) {
+            removeWeakListener(weakListener);
+        }
+        return weakListener;
+    }
+
+    private void removeWeakListener(WeakListener weakListener) {
+        List<WeakListener> candidates = weakListeners.get(weakListener.hash);
+        if (candidates != null && candidates.remove(weakListener) && candidates.isEmpty()) {
+            weakListeners.remove(weakListener.hash);
+        }
+    }
+
+    /**
+     * Unsubscribes a weakly subscribed listener after it was garbage collected
+     */
+    private void prune(WeakListener weakListener) {
+        synchronized (lock) {
+            ListenerList.Node[] subscribed = subscriptions.remove(weakListener);
+            if (subscribed == null) {
+                return;
+            }
+            removeWeakListener(weakListener);
+            remove(subscribed);
+        }
+    }
+
+    /**
+     * Dispatches the event to the listeners of its class, superclasses and interfaces.
+     * Events without any such listener are sent to listeners of {@link Object} as dead events.
+     */
+    @Override
+    public void dispatch(Object event, CancelableCallback callback) {
+        DispatchPlan plan = accept(event);
+        // released by the consumer, or dispatched right here once the ring buffer is closed
+        if (plan.ringBuffer() != null && plan.ringBuffer().publish(event, callback)) {
+            return;
+        }
+        try {
+            if (!dispatchAll(event, forEvent(plan, event), callback)) {
+                propagate(event, callback);
+            }
+        } finally {
+            PooledEvent.release(event);
+        }
+    }
+
+    /**
+     * Passes an event dispatched on this bus on to its open scopes
+     * @return if a listener of a scope canceled it
+     */
+    private boolean propagate(Object event, CancelableCallback callback) {
+        for (EventBus scope : scopes) {
+            if (scope.dispatchAll(event, scope.forEvent(scope.plans.get(event.getClass()), event), callback) || scope.propagate(event, callback)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the plan of event, after recording it and keeping it if it is sticky
+     */
+    private DispatchPlan accept(Object event) {
+        if (recorder != null) {
+            recorder.record(event);
+        }
+        DispatchPlan plan = plans.get(event.getClass());
+        if (plan.sticky()) {
+            stickyEvents.put(event);
+            // a listener subscribing before the event was kept may have replayed the previous one, so it has to be
+            // in the plan dispatching this one
+            plan = plans.get(event.getClass());
+        }
+        return plan;
+    }
+
+    @Override
+    public void dispatch(Object event) {
+        dispatch(event, WARN_CANCELED);
+    }
+
+    /**
+     * Dispatches a non-cancelable event like {@link #dispatch(Object)}, but runs its {@link Preference#CALLER} and
+     * {@link Preference#DISPATCH} listeners in parallel on the {@link Builder#parallelPool(ForkJoinPool)}, returning
+     * once all of them have run. Listeners must not depend on running in priority order. While the listeners are
+     * too cheap for this to pay off they keep running on the calling thread. Cancelable events are dispatched as usual.
+     */
+    public void dispatchParallel(Object event) {
+        DispatchPlan plan = accept(event);
+        plan = forEvent(plan, event);
+        try {
+            ParallelDispatch parallel = plan.parallel(parallelPool);
+            if (parallel == null) {
+                if (dispatchAll(event, plan, WARN_CANCELED)) {
+                    return;
+                }
+            } else {
+                dispatchParallel(event, plan, parallel);
+            }
+            propagate(event, WARN_CANCELED);
+        } finally {
+            PooledEvent.release(event);
+        }
+    }
+
+    private void dispatchParallel(Object event, DispatchPlan plan, ParallelDispatch parallel) {
+        for (ListenerInfo listenerInfo : plan.listeners()) {
+            if (!listenerInfo.runsOnCaller()) {
+                dispatchByPreference(event, listenerInfo, plan);
+            }
+        }
+        parallel.dispatch(event, invoker);
+    }
+
+    /**
+     * Runs {@link Preference#CALLER} and {@link Preference#DISPATCH} listeners on the calling thread as
+     * {@link #dispatch(Object)} does, but hands listeners of cancelable events that prefer another thread to it
+     * instead of running them inline, continuing with the rest of the listeners from there.
+     * Main thread listeners bypass {@link Builder#batchMainThread(int)} so they can be tracked individually.
+     * Open scopes then receive the event one after another in the same way, unless it was canceled, and the future
+     * completes once their listeners have run too or with the listener of a scope that canceled it.
+     * Events of a type with a {@link Builder#ringBuffer(Class, int, WaitStrategy, int)} are not published to it, as
+     * its consumers could not report which listener canceled them. Their listeners are run as described here,
+     * so they may overtake events still waiting in the ring buffer.
+     */
+    @Override
+    public CompletableFuture<DispatchResult> dispatchAsync(Object event) {
+        CompletableFuture<DispatchResult> future = dispatchAsync(event, accept(event));
+        if (scopes.length == 0 && !PooledEvent.isPooled(event)) {
+            return future;
+        }
+        return future.thenCompose(result -> result.canceled() ? CompletableFuture.completedFuture(result) : propagateAsync(event))
+                .whenComplete((result, failure) -> PooledEvent.release(event));
+    }
+
+    /**
+     * Dispatches event to the listeners of this bus as {@link #dispatchAsync(Object)} does, without its scopes
+     */
+    private CompletableFuture<DispatchResult> dispatchAsync(Object event, DispatchPlan plan) {
+        CompletableFuture<DispatchResult> future = AsyncDispatch.dispatch(event, forEvent(plan, event), invoker, mainThreadConsumer);
+        if (invocationListener == null) {
+            return future;
+        }
+        return future.thenApply(result -> {
+            if (result.canceled()) {
+                invocationListener.canceled(result.canceledBy(), event);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Passes an event dispatched asynchronously on this bus on to its open scopes, each once the previous is done
+     * @return future completed once the listeners of every scope have run or one of them canceled the event
+     */
+    private CompletableFuture<DispatchResult> propagateAsync(Object event) {
+        CompletableFuture<DispatchResult> future = CompletableFuture.completedFuture(new DispatchResult(event, null));
+        for (EventBus scope : scopes) {
+            future = future.thenCompose(result -> result.canceled() ? CompletableFuture.completedFuture(result)
+                    : scope.dispatchAsync(event, scope.plans.get(event.getClass()))
+                    .thenCompose(scopeResult -> scopeResult.canceled() ? CompletableFuture.completedFuture(scopeResult) : scope.propagateAsync(event)));
+        }
+        return future;
+    }
+
+    /**
+     * Closes the open scopes of this bus, stops the ring buffer consumers after they have dispatched the events
+     * already published and drops the cached dispatch plans. Events of ring buffer types dispatched afterwards are
+     * dispatched on the calling thread. Closing a scope detaches it from its parent and drops
+     * all of its listeners.
+     */
+    @Override
+    public void close() {
+        EventBus[] open;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            open = scopes;
+            scopes = NO_SCOPES;
+        }
+        for (EventBus scope : open) {
+            scope.close();
+        }
+        ringBuffers.values().forEach(RingBuffer::close);
+        if (parent != null) {
+            parent.detach(this);
+        }
+        synchronized (lock) {
+            if (parent != null) {
+                listeners.clear();
+                keyedListeners.clear();
+                subscriptions.clear();
+                weakListeners.clear();
+                strikes.clear();
+            }
+            plans.clear();
+        }
+    }
+
+    /**
+     * Stops passing events on to scope
+     */
+    private void detach(EventBus scope) {
+        synchronized (lock) {
+            EventBus[] open = new EventBus[scopes.length];
+            int size = 0;
+            for (EventBus candidate : scopes) {
+                if (candidate != scope) {
+                    open[size++] = candidate;
+                }
+            }
+            scopes = size == 0 ? NO_SCOPES : Arrays.copyOf(open, size);
+        }
+    }
+
+    /**
+     * Dispatches an event taken from a ring buffer on one of its consumer threads
+     */
+    private void consume(Object event, CancelableCallback callback) {
+        try {
+            if (!dispatchAll(event, forEvent(plans.get(event.getClass()), event), callback)) {
+                propagate(event, callback);
+            }
+        } finally {
+            PooledEvent.release(event);
+        }
+    }
+
+    private void doSubscribe(Object listener, boolean weak, Object key) {
+        SubscriberMethod[] subscriberMethods = this.subscriberMethods.get(listener.getClass());
+        if (subscriberMethods.length == 0) {
+            return;
+        }
+        ListenerInfo[] subscribed;
+        synchronized (lock) {
+            if (closed && parent != null) {
+                throw new IllegalStateException("Cannot subscribe to a closed scope");
+            }
+            if (subscriptions.containsKey(listener) || findWeakListener(listener) != null) {
+                // enforce idempotency (if we're already subscribed don't subscribe again)
+                return;
+            }
+            Object target = listener;
+            if (weak) {
+                WeakListener weakListener = WeakListener.create(listener, pruner);
+                weakListeners.computeIfAbsent(weakListener.hash, hash -> new ArrayList<>(1)).add(weakListener);
+                target = weakListener;
+            }
+            subscribed = new ListenerInfo[subscriberMethods.length];
+            for (int i = 0; i < subscriberMethods.length; i++) {
+                SubscriberMethod subscriberMethod = subscriberMethods[i];
+                MethodAccessor accessor = weak ? new WeakListener.Accessor(subscriberMethod.accessor()) : subscriberMethod.accessor();
+                subscribed[i] = new ListenerInfo(accessor, target, subscriberMethod, executor(subscriberMethod), key);
+            }
+            ListenerList.Node[] nodes = new ListenerList.Node[subscribed.length];
+            Set<Class<?>> changed = new HashSet<>();
+            for (int i = 0; i < subscribed.length; i++) {
+                ListenerInfo listenerInfo = subscribed[i];
+                ListenerList listenerList = key == null
+                        ? listeners.computeIfAbsent(listenerInfo.eventType(), eventType -> new ListenerList())
+                        : keyedListeners.computeIfAbsent(listenerInfo.eventType(), eventType -> new HashMap<>()).computeIfAbsent(key, ignored -> new ListenerList());
+                nodes[i] = listenerList.add(listenerInfo);
+                changed.add(listenerInfo.eventType());
+            }
+            subscriptions.put(target, nodes);
+            plans.invalidate(changed, key);
+        }
+        replay(subscribed);
+    }
+
+    /**
+     * Dispatches the sticky events matching any of the listeners just subscribed to them, outside the lock so they
+     * can subscribe or dispatch themselves. An event is skipped once a newer one of its class was kept, as that one
+     * reaches the listeners through its own dispatch.
+     */
+    private void replay(ListenerInfo[] subscribed) {
+        List<Class<?>> eventTypes = new ArrayList<>(subscribed.length);
+        for (ListenerInfo listenerInfo : subscribed) {
+            eventTypes.add(listenerInfo.eventType());
+        }
+        for (Object event : stickyMatching(eventTypes)) {
+            Function<Object, ?> key = mostSpecific(keys, event.getClass());
+            List<ListenerInfo> matching = new ArrayList<>();
+            for (ListenerInfo listenerInfo : subscribed) {
+                if (listenerInfo.eventType().isInstance(event)
+                        && (listenerInfo.key() == null || key != null && listenerInfo.key().equals(key.apply(event)))) {
+                    matching.add(listenerInfo);
+                }
+            }
+            matching.sort((o1, o2) -> Integer.compare(o2.priority(), o1.priority()));
+            DispatchPlan plan = new DispatchPlan(matching.toArray(new ListenerInfo[0]), Cancelable.class.isAssignableFrom(event.getClass()),
+                    mostSpecific(coalescing, event.getClass()), null, null, null, true, false);
+            if (getSticky(event.getClass()) == event) {
+                dispatchAll(event, plan, WARN_CANCELED);
+            }
+        }
+    }
+
+    /**
+     * @return the sticky events of this bus and its parents that are instances of one of eventTypes, preferring the
+     * event of the innermost bus for each class
+     */
+    private List<Object> stickyMatching(List<Class<?>> eventTypes) {
+        List<Object> matching = new ArrayList<>();
+        Set<Class<?>> eventClasses = new HashSet<>();
+        for (EventBus bus = this; bus != null; bus = bus.parent) {
+            for (Object event : bus.stickyEvents.matching(eventTypes)) {
+                if (eventClasses.add(event.getClass())) {
+                    matching.add(event);
+                }
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * @return the latest sticky event of exactly eventClass dispatched on this bus, or else on the closest of its
+     * parents, or null if there is none
+     */
+    public <T> T getSticky(Class<T> eventClass) {
+        for (EventBus bus = this; bus != null; bus = bus.parent) {
+            Object event = bus.stickyEvents.get(eventClass);
+            if (event != null) {
+                return eventClass.cast(event);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops replaying the latest sticky event of exactly eventClass dispatched on this bus to new listeners
+     * @return the event or null if there was none
+     */
+    public <T> T removeSticky(Class<T> eventClass) {
+        return eventClass.cast(stickyEvents.remove(eventClass));
+    }
+
+    private Executor executor(SubscriberMethod subscriberMethod) {
+        if (subscriberMethod.executor().isEmpty()) {
+            return executor;
+        }
+        Executor named = executors.get(subscriberMethod.executor());
+        if (named == null) {
+            throw new IllegalStateException("Subscriber method " + subscriberMethod + " uses executor '" + subscriberMethod.executor() + "' which was not registered with the bus");
+        }
+        return named;
+    }
+
+    /**
+     * Merges the listeners of eventClass and all of its supertypes, falling back to listeners of {@link Object}.
+     * Called by {@link DispatchPlans} holding the lock.
+     */
+    private DispatchPlan createPlan(Class<?> eventClass) {
+        Function<Object, ?> key = mostSpecific(keys, eventClass);
+        List<ListenerInfo> merged = new ArrayList<>();
+        Set<Object> listenerKeys = new HashSet<>();
+        for (Class<?> type : supertypes(eventClass)) {
+            if (type == Object.class) {
+                continue;
+            }
+            ListenerList listenerList = listeners.get(type);
+            if (listenerList != null) {
+                listenerList.addTo(merged);
+            }
+            Map<Object, ListenerList> byKey = keyedListeners.get(type);
+            if (byKey != null && key != null) {
+                listenerKeys.addAll(byKey.keySet());
+            }
+        }
+        // stable, so equal priorities keep the most specific event type first
+        merged.sort((o1, o2) -> Integer.compare(o2.priority(), o1.priority()));
+        DispatchPlan.Keyed keyed = listenerKeys.isEmpty() ? null
+                : new DispatchPlan.Keyed(key, merged.toArray(new ListenerInfo[0]), listenerKeys, new ConcurrentHashMap<>());
+        if (merged.isEmpty()) {
+            // If it didn't match, then just send it to a dead event listener that listens to object
+            ListenerList deadListeners = listeners.get(Object.class);
+            if (deadListeners != null) {
+                deadListeners.addTo(merged);
+                merged.sort((o1, o2) -> Integer.compare(o2.priority(), o1.priority()));
+            }
+        }
+        return createPlan(eventClass, merged.toArray(new ListenerInfo[0]), keyed);
+    }
+
+    /**
+     * Adds the listeners of key to the unkeyed listeners of a plan. Must be called holding the lock.
+     */
+    private DispatchPlan createPlan(Class<?> eventClass, DispatchPlan.Keyed keyed, Object key) {
+        List<ListenerInfo> merged = new ArrayList<>(Arrays.asList(keyed.unkeyed()));
+        for (Class<?> type : supertypes(eventClass)) {
+            Map<Object, ListenerList> byKey = keyedListeners.get(type);
+            ListenerList listenerList = byKey == null || type == Object.class ? null : byKey.get(key);
+            if (listenerList != null) {
+                listenerList.addTo(merged);
+            }
+        }
+        merged.sort((o1, o2) -> Integer.compare(o2.priority(), o1.priority()));
+        return createPlan(eventClass, merged.toArray(new ListenerInfo[0]), null);
+    }
+
+    private DispatchPlan createPlan(Class<?> eventClass, ListenerInfo[] listenerInfos, DispatchPlan.Keyed keyed) {
+        boolean cancelable = Cancelable.class.isAssignableFrom(eventClass);
+        return new DispatchPlan(listenerInfos, cancelable, mostSpecific(coalescing, eventClass), mostSpecific(ringBuffers, eventClass),
+                compilable(listenerInfos) ? new CompiledDispatcher.Compilation(listenerInfos, cancelable, compileThreshold) : null,
+                keyed, sticky(eventClass), parallel(eventClass));
+    }
+
+    /**
+     * @return if eventClass or one of its supertypes asks with {@link EventInfo#parallel()} to run its listeners in parallel
+     */
+    private static boolean parallel(Class<?> eventClass) {
+        for (Class<?> type : supertypes(eventClass)) {
+            EventInfo eventInfo = type.getAnnotation(EventInfo.class);
+            if (eventInfo != null && eventInfo.parallel()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return if eventClass or one of its supertypes was made sticky on the builder or with {@link EventInfo#sticky()}
+     */
+    private boolean sticky(Class<?> eventClass) {
+        for (Class<?> type : supertypes(eventClass)) {
+            EventInfo eventInfo = type.getAnnotation(EventInfo.class);
+            if (stickyTypes.contains(type) || eventInfo != null && eventInfo.sticky()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return if listenerInfos can be compiled into a single chain, which only runs listeners on the calling thread,
+     * does not time them and is small enough to be JIT compiled itself
+     */
+    private boolean compilable(ListenerInfo[] listenerInfos) {
+        if (compileThreshold == 0 || timed || listenerInfos.length == 0 || listenerInfos.length > CompiledDispatcher.MAX_LISTENERS) {
+            return false;
+        }
+        for (ListenerInfo listenerInfo : listenerInfos) {
+            if (!listenerInfo.runsOnCaller()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the value configured for the most specific supertype of eventClass or null if there is none
+     */
+    private static <V> V mostSpecific(Map<Class<?>, V> byType, Class<?> eventClass) {
+        if (byType.isEmpty()) {
+            return null;
+        }
+        for (Class<?> type : supertypes(eventClass)) {
+            V value = byType.get(type);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return eventClass, its superclasses and then all interfaces they implement
+     */
+    static Set<Class<?>> supertypes(Class<?> eventClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> type = eventClass; type != null; type = type.getSuperclass()) {
+            types.add(type);
+        }
+        Deque<Class<?>> pending = new ArrayDeque<>(types);
+        while (!pending.isEmpty()) {
+            for (Class<?> anInterface : pending.poll().getInterfaces()) {
+                if (types.add(anInterface)) {
+                    pending.add(anInterface);
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return if a listener canceled the event
+     */
+    private boolean dispatchAll(Object event, DispatchPlan plan, CancelableCallback callback) {
+        ListenerInfo[] listenerInfos = plan.listeners();
+        CompiledDispatcher compiled = plan.compilation() == null ? null : plan.compilation().dispatcher();
+        if (!plan.cancelable()) {
+            if (plan.parallelByDefault()) {
+                dispatchParallel(event, plan, plan.parallel(parallelPool));
+            } else if (compiled != null) {
+                compiled.dispatch(event, null, 0, failureHandler);
+            } else {
+                for (ListenerInfo listenerInfo : listenerInfos) {
+                    dispatchByPreference(event, listenerInfo, plan);
+                }
+            }
+            return false;
+        } else if (CancelableState.inField(event)) {
+            try {
+                if (compiled != null) {
+                    int canceledBy = compiled.dispatch(event, null, 0, failureHandler);
+                    if (canceledBy >= 0) {
+                        canceled(event, listenerInfos[canceledBy], callback);
+                    }
+                    return canceledBy >= 0;
+                }
+                for (ListenerInfo listenerInfo : listenerInfos) {
+                    dispatchByPreference(event, listenerInfo, plan);
+                    if (CancelableState.isCanceledField(event)) {
+                        canceled(event, listenerInfo, callback);
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                CancelableState.clearField(event);
+            }
+        } else {
+            CancelableState state = CancelableState.current();
+            int frame = state.enter((Cancelable) event);
+            try {
+                if (compiled != null) {
+                    int canceledBy = compiled.dispatch(event, state, frame, failureHandler);
+                    if (canceledBy >= 0) {
+                        canceled(event, listenerInfos[canceledBy], callback);
+                    }
+                    return canceledBy >= 0;
+                }
+                for (ListenerInfo listenerInfo : listenerInfos) {
+                    dispatchByPreference(event, listenerInfo, plan);
+                    if (state.isCanceled(frame)) {
+                        canceled(event, listenerInfo, callback);
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                state.exit(frame);
+            }
+        }
+    }
+
+    private void canceled(Object event, ListenerInfo listenerInfo, CancelableCallback callback) {
+        if (invocationListener != null) {
+            invocationListener.canceled(listenerInfo.subscriberMethod(), event);
+        }
+        callback.canceled(event);
+    }
+
+    private void dispatchByPreference(Object event, ListenerInfo listenerInfo, DispatchPlan plan) {
+        switch (listenerInfo.preference()) {
+            case MAIN:
+                PooledEvent.retain(event);
+                if (mainThreadBatch != null && !plan.cancelable()) {
+                    // cancelable events keep handing each listener to the main thread so cancellation is seen in order
+                    mainThreadBatch.submit(event, listenerInfo, plan.coalescing() == null ? null : plan.coalescing().apply(event));
+                } else {
+                    mainThreadConsumer.accept(() -> dispatchHandedOff(event, listenerInfo));
+                }
+                break;
+            case DISPATCH:
+            case CALLER:
+                dispatch(event, listenerInfo);
+                break;
+            case POOL:
+                if (plan.cancelable()) {
+                    // Cancelable events cannot be run in the pool as they are inherently non-async
+                    dispatch(event, listenerInfo);
+                } else {
+                    PooledEvent.retain(event);
+                    listenerInfo.executor().execute(() -> dispatchHandedOff(event, listenerInfo));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Invokes a listener handed off to another thread, releasing the event retained for it afterwards
+     */
+    private void dispatchHandedOff(Object event, ListenerInfo listenerInfo) {
+        try {
+            dispatch(event, listenerInfo);
+        } finally {
+            PooledEvent.release(event);
+        }
+    }
+
+    private void dispatch(Object event, ListenerInfo listenerInfo) {
+        if (!matches(event, listenerInfo)) {
+            return;
+        }
+        if (timed) {
+            dispatchTimed(event, listenerInfo);
+            return;
+        }
+        try {
+            listenerInfo.methodAccessor().executeEvent(listenerInfo.target(), event);
+        } catch (RuntimeException | LinkageError e) {
+            failed(event, listenerInfo, e);
+        }
+    }
+
+    private void dispatchTimed(Object event, ListenerInfo listenerInfo) {
+        Throwable failure = null;
+        long start = System.nanoTime();
+        try {
+            listenerInfo.methodAccessor().executeEvent(listenerInfo.target(), event);
+        } catch (RuntimeException | LinkageError e) {
+            failure = e;
+        }
+        long nanos = System.nanoTime() - start;
+        if (invocationListener != null) {
+            invocationListener.invoked(listenerInfo.subscriberMethod(), event, nanos, failure);
+        }
+        if (failure != null) {
+            failed(event, listenerInfo, failure);
+        } else if (nanos > latencyBudgetNanos) {
+            strike(listenerInfo, "exceeding its latency budget");
+        }
+    }
+
+    /**
+     * @return if event matches the filter of listenerInfo, a filter throwing is handled like its listener throwing
+     */
+    private boolean matches(Object event, ListenerInfo listenerInfo) {
+        Predicate<Object> filter = listenerInfo.filter();
+        if (filter == null) {
+            return true;
+        }
+        try {
+            return filter.test(event);
+        } catch (RuntimeException | LinkageError e) {
+            failed(event, listenerInfo, e);
+            return false;
+        }
+    }
+
+    private void failed(Object event, ListenerInfo listenerInfo, Throwable exception) {
+        if (maxStrikes > 0) {
+            strike(listenerInfo, "throwing " + exception);
+        }
+        exceptionHandler.handleException(exception, listenerInfo.subscriberMethod(), event);
+    }
+
+    /**
+     * Counts a strike against listenerInfo, unsubscribing just that subscriber method once it reaches
+     * {@link #maxStrikes}. Subscribing the listener again after unsubscribing it restores the method.
+     */
+    private void strike(ListenerInfo listenerInfo, String reason) {
+        if (maxStrikes == 0) {
+            return;
+        }
+        synchronized (lock) {
+            int count = strikes.merge(listenerInfo, 1, Integer::sum);
+            if (count < maxStrikes) {
+                return;
+            }
+            strikes.remove(listenerInfo);
+            ListenerList.Node[] subscribed = subscriptions.get(listenerInfo.target());
+            int index = subscribed == null ? -1 : indexOf(subscribed, listenerInfo);
+            if (index < 0) {
+                // already quarantined or unsubscribed
+                return;
+            }
+            unlink(subscribed[index]);
+            if (subscribed.length == 1) {
+                subscriptions.remove(listenerInfo.target());
+            } else {
+                ListenerList.Node[] remaining = new ListenerList.Node[subscribed.length - 1];
+                System.arraycopy(subscribed, 0, remaining, 0, index);
+                System.arraycopy(subscribed, index + 1, remaining, index, remaining.length - index);
+                subscriptions.put(listenerInfo.target(), remaining);
+            }
+            plans.invalidate(List.of(listenerInfo.eventType()), listenerInfo.key());
+        }
+        LOGGER.warning("Quarantined subscriber method " + listenerInfo.subscriberMethod() + " after " + reason);
+    }
+
+    /**
+     * @return the index of the node of listenerInfo or -1 if it is not subscribed
+     */
+    private static int indexOf(ListenerList.Node[] nodes, ListenerInfo listenerInfo) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].listenerInfo == listenerInfo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Configures an {@link EventBus}
+     */
+    public static final class Builder {
+        private static final int DEFAULT_COMPILE_THRESHOLD = 1_000;
+        private final Consumer<Runnable> mainThreadConsumer;
+        private MethodAccessorFactory accessorFactory = MethodAccessorFactory.hiddenClasses();
+        private int maxMainThreadBatch;
+        private final Map<Class<?>, Function<Object, ?>> coalescing = new HashMap<>();
+        private final Map<Class<?>, Function<Object, ?>> keys = new HashMap<>();
+        private final Set<Class<?>> stickyTypes = new HashSet<>();
+        private int stickyCapacity = 64;
+        private Executor executor = ForkJoinPool.commonPool();
+        private final Map<String, Executor> executors = new HashMap<>();
+        private final Map<Class<?>, RingBufferConfig> ringBuffers = new HashMap<>();
+        private InvocationListener invocationListener;
+        private SubscriberExceptionHandler exceptionHandler = SubscriberExceptionHandler.LOG;
+        private int maxStrikes;
+        private Duration latencyBudget;
+        private int compileThreshold = DEFAULT_COMPILE_THRESHOLD;
+        private ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+        private EventRecorder recorder;
+        private final Map<Class<?>, PoolConfig<?>> pools = new HashMap<>();
+
+        private Builder(Consumer<Runnable> mainThreadConsumer) {
+            this.mainThreadConsumer = Objects.requireNonNull(mainThreadConsumer, "mainThreadConsumer");
+        }
+
+        /**
+         * @param accessorFactory to create the accessors invoking subscriber methods
+         */
+        public Builder accessorFactory(MethodAccessorFactory accessorFactory) {
+            this.accessorFactory = Objects.requireNonNull(accessorFactory, "accessorFactory");
+            return this;
+        }
+
+        /**
+         * Queues {@link Preference#MAIN} invocations of non-cancelable events and hands the main thread consumer a
+         * single task draining them, rescheduling itself while work remains.
+         * @param maxPerDrain maximum number of listener invocations each drain runs
+         */
+        public Builder batchMainThread(int maxPerDrain) {
+            if (maxPerDrain <= 0) {
+                throw new IllegalArgumentException("maxPerDrain must be positive");
+            }
+            this.maxMainThreadBatch = maxPerDrain;
+            return this;
+        }
+
+        /**
+         * Coalesces queued main thread invocations of events of eventType, including subtypes, with equal keys so
+         * a listener only sees the latest of them. Requires {@link #batchMainThread(int)}.
+         * @param eventType of the events
+         * @param key extracts the key events are coalesced by
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder coalesce(Class<T> eventType, Function<? super T, ?> key) {
+            coalescing.put(eventType, (Function<Object, ?>) key);
+            return this;
+        }
+
+        /**
+         * Extracts the key of events of eventType, including subtypes, that listeners subscribed with
+         * {@link EventBus#subscribe(Object, Object)} are selected by
+         * @param eventType of the events
+         * @param key extracts the key of an event
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder keyedBy(Class<T> eventType, Function<? super T, ?> key) {
+            keys.put(Objects.requireNonNull(eventType, "eventType"), (Function<Object, ?>) Objects.requireNonNull(key, "key"));
+            return this;
+        }
+
+        /**
+         * Keeps the latest event of eventType, and of its subtypes, and replays it to listeners when they subscribe,
+         * like {@link EventInfo#sticky()} does for annotated types
+         * @param eventType of the events
+         */
+        public Builder sticky(Class<?> eventType) {
+            stickyTypes.add(Objects.requireNonNull(eventType, "eventType"));
+            return this;
+        }
+
+        /**
+         * @param capacity maximum number of sticky event classes to keep the latest event of, evicting the least
+         *                 recently dispatched first, 64 by default
+         */
+        public Builder stickyCapacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            this.stickyCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param executor to run {@link Preference#POOL} listeners on, the common {@link ForkJoinPool} by default
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        /**
+         * Runs each {@link Preference#POOL} listener invocation on its own virtual thread, so blocking listeners
+         * do not starve a shared pool
+         */
+        public Builder virtualThreads() {
+            return executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        /**
+         * Bounds the {@link Preference#POOL} executor configured so far with a {@link BoundedExecutor}
+         * @param capacity    maximum number of queued listener invocations
+         * @param parallelism maximum number of invocations running at once
+         * @param policy      what to do when the queue is full
+         */
+        public Builder bounded(int capacity, int parallelism, OverflowPolicy policy) {
+            return executor(new BoundedExecutor(executor, capacity, parallelism, policy));
+        }
+
+        /**
+         * Registers an executor listeners can select with {@link Subscribe#executor()}
+         * @param name of the executor
+         * @param executor to run {@link Preference#POOL} listeners on
+         */
+        public Builder executor(String name, Executor executor) {
+            executors.put(Objects.requireNonNull(name, "name"), Objects.requireNonNull(executor, "executor"));
+            return this;
+        }
+
+        /**
+         * Publishes events of eventType, including subtypes, to a preallocated ring buffer instead of dispatching them
+         * on the calling thread. The consumer threads then dispatch them in batches, as if they called
+         * {@link EventBus#dispatch(Object, CancelableCallback)}. Publishing does not allocate but waits while the buffer
+         * is full. Events are dispatched in order with a single consumer. {@link EventBus#close()} stops the consumers.
+         * @param eventType    of the events
+         * @param capacity     number of events the buffer holds, rounded up to a power of two
+         * @param waitStrategy how idle consumers and producers finding the buffer full wait
+         * @param consumers    number of threads dispatching events from the buffer
+         */
+        public Builder ringBuffer(Class<?> eventType, int capacity, WaitStrategy waitStrategy, int consumers) {
+            if (capacity <= 0 || consumers <= 0) {
+                throw new IllegalArgumentException("capacity and consumers must be positive");
+            }
+            ringBuffers.put(Objects.requireNonNull(eventType, "eventType"), new RingBufferConfig(capacity, Objects.requireNonNull(waitStrategy, "waitStrategy"), consumers));
+            return this;
+        }
+
+        /**
+         * Reports every subscriber method invocation to invocationListener, such as {@link DispatchMetrics}.
+         * Without it dispatch does not time invocations at all.
+         * @param invocationListener to report invocations to
+         */
+        public Builder instrument(InvocationListener invocationListener) {
+            this.invocationListener = Objects.requireNonNull(invocationListener, "invocationListener");
+            return this;
+        }
+
+        /**
+         * @param exceptionHandler to handle exceptions thrown by subscriber methods, {@link SubscriberExceptionHandler#LOG} by default
+         */
+        public Builder exceptionHandler(SubscriberExceptionHandler exceptionHandler) {
+            this.exceptionHandler = Objects.requireNonNull(exceptionHandler, "exceptionHandler");
+            return this;
+        }
+
+        /**
+         * Unsubscribes a subscriber method of a listener once it has thrown maxFailures times, so a misbehaving
+         * listener cannot keep degrading dispatch. Other subscriber methods of the listener stay subscribed.
+         * @param maxFailures number of exceptions that quarantine a subscriber method
+         */
+        public Builder quarantine(int maxFailures) {
+            if (maxFailures <= 0) {
+                throw new IllegalArgumentException("maxFailures must be positive");
+            }
+            this.maxStrikes = maxFailures;
+            return this;
+        }
+
+        /**
+         * As {@link #quarantine(int)}, also counting invocations that take longer than latencyBudget as failures.
+         * Times every invocation.
+         * @param maxFailures   number of exceptions or slow invocations that quarantine a subscriber method
+         * @param latencyBudget invocations may take
+         */
+        public Builder quarantine(int maxFailures, Duration latencyBudget) {
+            this.latencyBudget = Objects.requireNonNull(latencyBudget, "latencyBudget");
+            return quarantine(maxFailures);
+        }
+
+        /**
+         * Compiles the listeners of an event class into a single generated dispatcher once it has been dispatched
+         * threshold times with the same listeners, if they all prefer {@link Preference#CALLER} or
+         * {@link Preference#DISPATCH}. Subscribing or unsubscribing listeners of the class starts the count over.
+         * Buses timing invocations for {@link #instrument(InvocationListener)} or a latency budget never compile.
+         * @param threshold number of dispatches, 1000 by default, or 0 to never compile
+         */
+        public Builder compileThreshold(int threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("threshold must not be negative");
+            }
+            this.compileThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * @param pool to run listeners in for {@link EventBus#dispatchParallel(Object)} and {@link EventInfo#parallel()},
+         *             the common {@link ForkJoinPool} by default
+         */
+        public Builder parallelPool(ForkJoinPool pool) {
+            this.parallelPool = Objects.requireNonNull(pool, "pool");
+            return this;
+        }
+
+        /**
+         * @param recorder to hand every dispatched event to before it is dispatched, such as
+         *                 {@link com.collarmc.pounce.recording.EventLogWriter}
+         */
+        public Builder recorder(EventRecorder recorder) {
+            this.recorder = Objects.requireNonNull(recorder, "recorder");
+            return this;
+        }
+
+        /**
+         * Reuses events of exactly eventType acquired with {@link EventBus#acquire(Class)}, so high rate events do
+         * not allocate. Each thread keeps its own free events. Pooled events cannot be sticky, as the bus would keep
+         * them past their dispatch, and a {@link #recorder(EventRecorder)} has to copy them before returning.
+         * @param eventType of the events
+         * @param factory   to create an event while the acquiring thread has no free one
+         * @param capacity  maximum number of free events kept per thread
+         */
+        public <T extends PooledEvent> Builder pool(Class<T> eventType, Supplier<? extends T> factory, int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            pools.put(Objects.requireNonNull(eventType, "eventType"), new PoolConfig<>(Objects.requireNonNull(factory, "factory"), capacity));
+            return this;
+        }
+
+        public EventBus build() {
+            if (!coalescing.isEmpty() && maxMainThreadBatch == 0) {
+                throw new IllegalStateException("coalescing requires batchMainThread");
+            }
+            for (Class<?> pooled : pools.keySet()) {
+                for (Class<?> type : supertypes(pooled)) {
+                    EventInfo eventInfo = type.getAnnotation(EventInfo.class);
+                    if (stickyTypes.contains(type) || eventInfo != null && eventInfo.sticky()) {
+                        throw new IllegalStateException(pooled.getName() + " cannot be pooled as it is sticky");
+                    }
+                }
+            }
+            return new EventBus(this);
+        }
+    }
+
+    private record RingBufferConfig(int capacity, WaitStrategy waitStrategy, int consumers) {}
+
+    private record PoolConfig<T extends PooledEvent>(Supplier<? extends T> factory, int capacity) {}
+}
@@ -0,0 +1,38 @@
+package com.collarmc.pounce;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementors can dispatch events
+ */
+public interface EventDispatcher {
+    /**
+     * Dispatch an event
+     * @param event to dispatch
+     */
+    void dispatch(Object event);
+
+    /**
+     * Dispatch an event
+     * @param event to dispatch
+     * @param callback when event is canceled
+     */
+    void dispatch(Object event, CancelableCallback callback);
+
+    /**
+     * Dispatch an event without waiting for listeners running on other threads.
+     * By default the event is dispatched with {@link #dispatch(Object)}, returning a completed future that cannot
+     * tell which listener canceled the event.
+     * @param event to dispatch
+     * @return future completed once every listener has run, or one canceled the event, failing if a listener threw
+     * and the bus' {@link SubscriberExceptionHandler} rethrew
+     */
+    default CompletableFuture<DispatchResult> dispatchAsync(Object event) {
+        try {
+            dispatch(event);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(new DispatchResult(event, null));
+    }
+}
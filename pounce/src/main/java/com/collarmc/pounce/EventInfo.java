@@ -0,0 +1,27 @@
+package com.collarmc.pounce;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EventInfo {
+    /**
+     * Replaces the preference of every listener of the type when set
+     */
+    Preference preference() default Preference.UNSET;
+
+    /**
+     * Keeps the latest event of the type, and of its subtypes, and replays it to listeners when they subscribe
+     */
+    boolean sticky() default false;
+
+    /**
+     * Runs the {@link Preference#CALLER} and {@link Preference#DISPATCH} listeners of the type, unless it is
+     * {@link Cancelable}, in parallel on every dispatch, as {@link EventBus#dispatchParallel(Object)} does.
+     * Listeners preferring another thread keep running there.
+     */
+    boolean parallel() default false;
+}
@@ -0,0 +1,106 @@
+package com.collarmc.pounce;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Free instances of one {@link PooledEvent} class, kept per thread so acquiring an event takes no lock.
+ * An event always goes back to the stash of the thread that created it. Events released on that thread are pushed
+ * onto its free list directly, events released by listeners on other threads onto a lock-free list the owner takes
+ * over once its own free list runs out. Events that are never released, such as ones handed to an executor that
+ * dropped the task, are simply garbage collected.
+ * @param <T> event type
+ */
+final class EventPool<T extends PooledEvent> {
+
+    private final Supplier<? extends T> factory;
+    private final ThreadLocal<Stash> stashes;
+
+    /**
+     * @param factory  to create events while a thread has no free ones
+     * @param capacity maximum number of free events kept per thread
+     */
+    EventPool(Supplier<? extends T> factory, int capacity) {
+        this.factory = factory;
+        this.stashes = ThreadLocal.withInitial(() -> new Stash(capacity));
+    }
+
+    /**
+     * @return a free event of the calling thread or a new one
+     */
+    @SuppressWarnings("unchecked")
+    T acquire() {
+        Stash stash = stashes.get();
+        PooledEvent event = stash.poll();
+        if (event == null) {
+            event = factory.get();
+            event.stash = stash;
+        }
+        event.acquired();
+        return (T) event;
+    }
+
+    static final class Stash {
+        private final Thread owner = Thread.currentThread();
+        private final int capacity;
+        /**
+         * Free events, only touched by the owner
+         */
+        private PooledEvent free;
+        private int size;
+        /**
+         * Free events released by other threads
+         */
+        private final AtomicReference<PooledEvent> returned = new AtomicReference<>();
+
+        private Stash(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Called by the owner
+         * @return a free event or null if there is none
+         */
+        private PooledEvent poll() {
+            if (free == null) {
+                takeReturned();
+            }
+            PooledEvent event = free;
+            if (event != null) {
+                free = event.next;
+                event.next = null;
+                size--;
+            }
+            return event;
+        }
+
+        private void takeReturned() {
+            PooledEvent event = returned.getAndSet(null);
+            free = event;
+            size = 0;
+            while (event != null) {
+                if (++size == capacity) {
+                    // drop the rest
+                    event.next = null;
+                }
+                event = event.next;
+            }
+        }
+
+        void free(PooledEvent event) {
+            if (Thread.currentThread() == owner) {
+                if (size < capacity) {
+                    event.next = free;
+                    free = event;
+                    size++;
+                }
+                return;
+            }
+            PooledEvent head;
+            do {
+                head = returned.get();
+                event.next = head;
+            } while (!returned.compareAndSet(head, event));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.collarmc.pounce;
+
+/**
+ * Sees every event dispatched on a bus, see {@link EventBus.Builder#recorder(EventRecorder)}.
+ * Called on the dispatching thread before any listener, so implementations must be thread safe and hand the event
+ * off rather than doing any I/O themselves. A {@link PooledEvent} is reused once its dispatch completes, so whatever
+ * is needed of it has to be copied before returning.
+ */
+@FunctionalInterface
+public interface EventRecorder {
+    /**
+     * @param event about to be dispatched
+     */
+    void record(Object event);
+}
@@ -0,0 +1,94 @@
+package com.collarmc.pounce;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Defines one hidden class per subscriber method whose static final field holds a method handle to it.
+ * Static finals of hidden classes are trusted as constants, so the JIT inlines through the handle into the
+ * subscriber method. The hidden class lives in pounce's own package and only reaches the listener through the
+ * handle, so it works across class loaders and modules and is unloaded once the accessor is unreachable.
+ */
+final class HiddenClassMethodAccessorFactory implements MethodAccessorFactory {
+
+    static final HiddenClassMethodAccessorFactory INSTANCE = new HiddenClassMethodAccessorFactory();
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final byte[] ACCESSOR_CLASS = generate();
+
+    private HiddenClassMethodAccessorFactory() {}
+
+    @Override
+    public MethodAccessor create(Method method, Class<?> eventType) {
+        MethodHandle handle = unreflect(method).asType(ACCESSOR_TYPE);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(ACCESSOR_CLASS, handle, true);
+            return (MethodAccessor) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not define accessor for " + method, e);
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Subscriber method " + method + " is not accessible. Open its package to pounce or make it public.", e);
+            }
+        }
+    }
+
+    /**
+     * @return a template accessor class reading its handle from the class data it is defined with
+     */
+    private static byte[] generate() {
+        String desc = Type.getInternalName(HiddenClassMethodAccessorFactory.class) + "$Accessor";
+        String handleDesc = Type.getDescriptor(MethodHandle.class);
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(V21, ACC_FINAL | ACC_SUPER, desc, null, Type.getInternalName(MethodAccessor.class), null);
+        classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "HANDLE", handleDesc, null, null).visitEnd();
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+        methodVisitor.visitLdcInsn("_");
+        methodVisitor.visitLdcInsn(Type.getType(MethodHandle.class));
+        methodVisitor.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "classData", "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+        methodVisitor.visitTypeInsn(CHECKCAST, Type.getInternalName(MethodHandle.class));
+        methodVisitor.visitFieldInsn(PUTSTATIC, desc, "HANDLE", handleDesc);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = classWriter.visitMethod(0, "<init>", "()V", null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(MethodAccessor.class), "<init>", "()V", false);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = classWriter.visitMethod(ACC_PUBLIC, "executeEvent", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, desc, "HANDLE", handleDesc);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact", ACCESSOR_TYPE.toMethodDescriptorString(), false);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
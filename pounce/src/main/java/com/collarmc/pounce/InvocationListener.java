@@ -0,0 +1,23 @@
+package com.collarmc.pounce;
+
+/**
+ * Observes every subscriber method invocation of a bus, see {@link EventBus.Builder#instrument(InvocationListener)}.
+ * Called on the thread that ran the subscriber, so implementations must be thread safe and cheap.
+ */
+public interface InvocationListener {
+    /**
+     * Called after a subscriber method returned or threw
+     * @param subscriberMethod that was invoked
+     * @param event it was invoked with
+     * @param nanos the invocation took
+     * @param failure the subscriber method threw or null if it returned normally
+     */
+    void invoked(SubscriberMethod subscriberMethod, Object event, long nanos, Throwable failure);
+
+    /**
+     * Called when a subscriber method canceled a {@link Cancelable} event
+     * @param subscriberMethod that canceled the event
+     * @param event that was canceled
+     */
+    default void canceled(SubscriberMethod subscriberMethod, Object event) {}
+}
@@ -0,0 +1,44 @@
+package com.collarmc.pounce;
+
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+/**
+ * A subscriber method bound to one listener instance
+ * @param methodAccessor   Listener accessor, shared with other instances of the listener class
+ * @param target           Listener reference
+ * @param preference       Where it will be executed
+ * @param priority         Order relative to other listeners, highest first
+ * @param executor         Where it will be executed for {@link Preference#POOL}
+ * @param subscriberMethod The subscriber method
+ * @param key              Only events with this key are passed to the listener, or null for every event
+ * @param filter           Events have to match to be passed to the listener, or null
+ */
+record ListenerInfo(
+        MethodAccessor methodAccessor,
+        Object target,
+        Preference preference,
+        int priority,
+        Executor executor,
+        SubscriberMethod subscriberMethod,
+        Object key,
+        Predicate<Object> filter
+) {
+    ListenerInfo(MethodAccessor methodAccessor, Object target, SubscriberMethod subscriberMethod, Executor executor, Object key) {
+        this(methodAccessor, target, subscriberMethod.preference(), subscriberMethod.priority(), executor, subscriberMethod, key, subscriberMethod.filter());
+    }
+
+    /**
+     * @return the event type the listener subscribed to
+     */
+    Class<?> eventType() {
+        return subscriberMethod.eventType();
+    }
+
+    /**
+     * @return if the listener runs on the thread dispatching the event
+     */
+    boolean runsOnCaller() {
+        return preference == Preference.CALLER || preference == Preference.DISPATCH;
+    }
+}
@@ -0,0 +1,67 @@
+package com.collarmc.pounce;
+
+import java.util.Collection;
+
+/**
+ * Listeners subscribed to one event type in the order they subscribed, guarded by the bus lock.
+ * Each subscription keeps the nodes of its listeners, so unsubscribing unlinks them without scanning or copying
+ * the listeners of the type. Dispatch never reads the list, only the {@link DispatchPlan} built from it.
+ */
+final class ListenerList {
+
+    private final Node head = new Node(this, null);
+
+    ListenerList() {
+        head.previous = head;
+        head.next = head;
+    }
+
+    /**
+     * @return the node to unlink listenerInfo with
+     */
+    Node add(ListenerInfo listenerInfo) {
+        Node node = new Node(this, listenerInfo);
+        node.previous = head.previous;
+        node.next = head;
+        head.previous.next = node;
+        head.previous = node;
+        return node;
+    }
+
+    boolean isEmpty() {
+        return head.next == head;
+    }
+
+    /**
+     * Adds the listeners, including keyed listeners, to listenerInfos in the order they subscribed
+     */
+    void addTo(Collection<ListenerInfo> listenerInfos) {
+        for (Node node = head.next; node != head; node = node.next) {
+            listenerInfos.add(node.listenerInfo);
+        }
+    }
+
+    static final class Node {
+        final ListenerList list;
+        final ListenerInfo listenerInfo;
+        private Node previous;
+        private Node next;
+
+        private Node(ListenerList list, ListenerInfo listenerInfo) {
+            this.list = list;
+            this.listenerInfo = listenerInfo;
+        }
+
+        /**
+         * Removes the listener from its list
+         * @return if the list is empty now
+         */
+        boolean unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = this;
+            next = this;
+            return list.isEmpty();
+        }
+    }
+}
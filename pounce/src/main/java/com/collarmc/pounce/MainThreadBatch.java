@@ -0,0 +1,130 @@
+package com.collarmc.pounce;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects {@link Preference#MAIN} work into a single queue drained by one task on the main thread, instead of
+ * handing every listener invocation to the main thread consumer separately. Each drain runs at most a fixed number
+ * of invocations and schedules another drain for the rest, so a burst of events is spread across ticks.
+ * Pending invocations of the same listener with the same coalescing key are replaced by the latest event.
+ */
+final class MainThreadBatch {
+
+    private static final Logger LOGGER = Logger.getLogger(MainThreadBatch.class.getName());
+
+    private final Consumer<Runnable> mainThreadConsumer;
+    private final BiConsumer<Object, ListenerInfo> invoker;
+    private final int maxPerDrain;
+    private final Runnable drain = this::drain;
+
+    private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+    private final Map<CoalescingKey, Task> coalescing = new HashMap<>();
+    private boolean scheduled;
+
+    /**
+     * @param mainThreadConsumer to schedule drains on the main thread
+     * @param invoker            to invoke a listener with an event
+     * @param maxPerDrain        maximum number of invocations run by each drain
+     */
+    MainThreadBatch(Consumer<Runnable> mainThreadConsumer, BiConsumer<Object, ListenerInfo> invoker, int maxPerDrain) {
+        this.mainThreadConsumer = mainThreadConsumer;
+        this.invoker = invoker;
+        this.maxPerDrain = maxPerDrain;
+    }
+
+    /**
+     * Queues an invocation of listenerInfo
+     * @param key to coalesce with pending invocations of the same listener, or null to always queue
+     */
+    void submit(Object event, ListenerInfo listenerInfo, Object key) {
+        boolean schedule;
+        synchronized (this) {
+            if (key != null) {
+                CoalescingKey coalescingKey = new CoalescingKey(listenerInfo, key);
+                Task pending = coalescing.get(coalescingKey);
+                if (pending != null) {
+                    Object replaced = pending.event;
+                    pending.event = event;
+                    // a pooled event replaced by coalescing is no longer used by this listener
+                    PooledEvent.release(replaced);
+                    return;
+                }
+                Task task = new Task(listenerInfo, coalescingKey, event);
+                coalescing.put(coalescingKey, task);
+                tasks.add(task);
+            } else {
+                tasks.add(new Task(listenerInfo, null, event));
+            }
+            schedule = !scheduled;
+            scheduled = true;
+        }
+        if (schedule) {
+            mainThreadConsumer.accept(drain);
+        }
+    }
+
+    private void drain() {
+        Task[] batch;
+        synchronized (this) {
+            batch = new Task[Math.min(tasks.size(), maxPerDrain)];
+            for (int i = 0; i < batch.length; i++) {
+                Task task = tasks.poll();
+                if (task.coalescingKey != null) {
+                    coalescing.remove(task.coalescingKey);
+                }
+                batch[i] = task;
+            }
+        }
+        try {
+            for (Task task : batch) {
+                try {
+                    invoker.accept(task.event, task.listenerInfo);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Problem invoking listener", e);
+                } finally {
+                    PooledEvent.release(task.event);
+                }
+            }
+        } finally {
+            boolean reschedule;
+            synchronized (this) {
+                reschedule = !tasks.isEmpty();
+                scheduled = reschedule;
+            }
+            if (reschedule) {
+                mainThreadConsumer.accept(drain);
+            }
+        }
+    }
+
+    /**
+     * Compares listeners by identity, equal listener records would compare their targets with equals
+     */
+    private record CoalescingKey(ListenerInfo listenerInfo, Object key) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CoalescingKey other && listenerInfo == other.listenerInfo && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(listenerInfo) + key.hashCode();
+        }
+    }
+
+    private static final class Task {
+        private final ListenerInfo listenerInfo;
+        private final CoalescingKey coalescingKey;
+        private Object event;
+
+        private Task(ListenerInfo listenerInfo, CoalescingKey coalescingKey, Object event) {
+            this.listenerInfo = listenerInfo;
+            this.coalescingKey = coalescingKey;
+            this.event = event;
+        }
+    }
+}
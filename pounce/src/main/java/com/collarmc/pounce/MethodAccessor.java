@@ -0,0 +1,14 @@
+package com.collarmc.pounce;
+
+/**
+ * Invokes a subscriber method. Created by a {@link MethodAccessorFactory} once per method and shared by every
+ * instance of the declaring class.
+ */
+public abstract class MethodAccessor {
+    /**
+     * Invokes the handler method
+     * @param handler instance declaring the method
+     * @param event to pass to it
+     */
+    public abstract void executeEvent(final Object handler, final Object event);
+}
@@ -0,0 +1,41 @@
+package com.collarmc.pounce;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the {@link MethodAccessor}s used to invoke subscriber methods.
+ * The bus caches accessors per subscriber method, so factories do not need to.
+ */
+public interface MethodAccessorFactory {
+
+    /**
+     * @param method    the subscriber method
+     * @param eventType the event type it accepts
+     * @return accessor invoking method
+     * @throws IllegalStateException if the method cannot be accessed
+     */
+    MethodAccessor create(Method method, Class<?> eventType);
+
+    /**
+     * Default factory. Binds a method handle to each accessor as the constant of a hidden class, which the JIT inlines
+     * like a direct call. Works for non-public methods and listeners in other modules or class loaders as long as the
+     * listener's package is open to pounce, and lets accessors be unloaded along with their listener class.
+     */
+    static MethodAccessorFactory hiddenClasses() {
+        return HiddenClassMethodAccessorFactory.INSTANCE;
+    }
+
+    /**
+     * Generates classes that call public subscriber methods directly, each in their own class loader.
+     */
+    static MethodAccessorFactory asm() {
+        return AsmMethodAccessorFactory.INSTANCE;
+    }
+
+    /**
+     * Invokes subscriber methods through {@link Method#invoke(Object, Object...)} without generating any classes.
+     */
+    static MethodAccessorFactory reflection() {
+        return ReflectionMethodAccessorFactory.INSTANCE;
+    }
+}
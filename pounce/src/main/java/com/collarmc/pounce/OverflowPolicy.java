@@ -0,0 +1,19 @@
+package com.collarmc.pounce;
+
+/**
+ * What a {@link BoundedExecutor} does with a task when its queue is full
+ */
+public enum OverflowPolicy {
+    /**
+     * Wait for space in the queue
+     */
+    BLOCK,
+    /**
+     * Discard the oldest queued task to make room
+     */
+    DROP_OLDEST,
+    /**
+     * Run the task on the thread submitting it
+     */
+    RUN_ON_CALLER
+}
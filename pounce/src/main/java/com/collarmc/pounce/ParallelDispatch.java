@@ -0,0 +1,89 @@
+package com.collarmc.pounce;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Invokes the {@link Preference#CALLER} and {@link Preference#DISPATCH} listeners of a non-cancelable event class
+ * across a {@link ForkJoinPool}, returning once all of them have run. Stays on the calling thread while the listeners
+ * are too cheap for forking to pay off, judged by a moving average of how long they take sequentially.
+ */
+final class ParallelDispatch {
+
+    /**
+     * Total listener time below which dispatching sequentially is cheaper than forking
+     */
+    private static final long MIN_PARALLEL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /**
+     * Once parallel, every this many dispatches runs sequentially again to check the listeners are still expensive
+     */
+    private static final int RESAMPLE_INTERVAL = 128;
+
+    private final ListenerInfo[] listenerInfos;
+    private final ForkJoinPool pool;
+    /**
+     * Moving average of the time one listener takes, racy as an estimate does not need to be exact
+     */
+    private long listenerNanos;
+    private int dispatches;
+
+    /**
+     * @param listenerInfos listeners of the plan, of which those running on the calling thread are run in parallel
+     * @param pool          to fork listeners into
+     */
+    ParallelDispatch(ListenerInfo[] listenerInfos, ForkJoinPool pool) {
+        this.listenerInfos = Arrays.stream(listenerInfos).filter(ListenerInfo::runsOnCaller).toArray(ListenerInfo[]::new);
+        this.pool = pool;
+    }
+
+    /**
+     * @param event   to dispatch
+     * @param invoker to invoke a listener with the event, passed per dispatch so the instance cached in a plan does
+     *                not reference the bus
+     */
+    void dispatch(Object event, BiConsumer<Object, ListenerInfo> invoker) {
+        if (pool.getParallelism() > 1 && listenerNanos * listenerInfos.length >= MIN_PARALLEL_NANOS && ++dispatches % RESAMPLE_INTERVAL != 0) {
+            pool.invoke(new FanOut(event, invoker, 0, listenerInfos.length));
+            return;
+        }
+        long start = System.nanoTime();
+        for (ListenerInfo listenerInfo : listenerInfos) {
+            invoker.accept(event, listenerInfo);
+        }
+        long nanos = (System.nanoTime() - start) / listenerInfos.length;
+        listenerNanos = listenerNanos == 0 ? nanos : (listenerNanos * 7 + nanos) / 8;
+    }
+
+    /**
+     * Splits the listeners in half until each half is worth at most one fork
+     */
+    @SuppressWarnings("serial") // only ever forked into the pool, never serialized
+    private final class FanOut extends RecursiveAction {
+        private final Object event;
+        private final BiConsumer<Object, ListenerInfo> invoker;
+        private final int from;
+        private final int to;
+
+        FanOut(Object event, BiConsumer<Object, ListenerInfo> invoker, int from, int to) {
+            this.event = event;
+            this.invoker = invoker;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1 || (to - from) * listenerNanos < MIN_PARALLEL_NANOS) {
+                for (int i = from; i < to; i++) {
+                    invoker.accept(event, listenerInfos[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FanOut(event, invoker, from, middle), new FanOut(event, invoker, middle, to));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.collarmc.pounce;
+
+/**
+ * Base class for pooled {@link Cancelable} events, keeping the canceled flag in a field like {@link AbstractCancelable}
+ */
+public abstract class PooledCancelable extends PooledEvent implements Cancelable {
+
+    private boolean canceled;
+
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    /**
+     * @return if a listener canceled the event during the current dispatch
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * Resets the flag once the dispatch completes
+     */
+    void clearCanceled() {
+        canceled = false;
+    }
+}
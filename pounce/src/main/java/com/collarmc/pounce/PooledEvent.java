@@ -0,0 +1,82 @@
+package com.collarmc.pounce;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Optional base class for events reused instead of allocated for every dispatch, see
+ * {@link EventBus.Builder#pool(Class, java.util.function.Supplier, int)}. An instance acquired with
+ * {@link EventBus#acquire(Class)} goes back to its pool once its dispatch has completed, including every
+ * {@link Preference#MAIN} and {@link Preference#POOL} listener it was handed to, so neither the dispatching code nor
+ * listeners may keep a reference to it past that. Instances created with {@code new} are never pooled.
+ * Extend {@link PooledCancelable} for pooled events that can be canceled.
+ */
+public abstract class PooledEvent {
+
+    private static final VarHandle REFERENCES;
+
+    static {
+        try {
+            REFERENCES = MethodHandles.lookup().findVarHandle(PooledEvent.class, "references", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Stash of the thread that created the event, or null if it was not created by a pool
+     */
+    EventPool.Stash stash;
+    /**
+     * Next free event while the event is in a stash
+     */
+    PooledEvent next;
+    /**
+     * Dispatches and listener invocations still using the event
+     */
+    private volatile int references;
+
+    /**
+     * Clears the state of the event before it goes back to its pool. Does nothing by default.
+     */
+    protected void reset() {}
+
+    /**
+     * Hands the event out of its pool to the dispatching code
+     */
+    void acquired() {
+        references = 1;
+    }
+
+    /**
+     * @return if event was acquired from a pool
+     */
+    static boolean isPooled(Object event) {
+        return event instanceof PooledEvent pooled && pooled.stash != null;
+    }
+
+    /**
+     * Keeps a pooled event from going back to its pool until {@link #release(Object)} is called, such as while a
+     * listener is waiting to run on another thread
+     */
+    static void retain(Object event) {
+        if (isPooled(event)) {
+            REFERENCES.getAndAdd(event, 1);
+        }
+    }
+
+    /**
+     * Returns a pooled event to its pool once nothing retains it anymore
+     */
+    static void release(Object event) {
+        if (event instanceof PooledEvent pooled && pooled.stash != null) {
+            int remaining = (int) REFERENCES.getAndAdd(pooled, -1) - 1;
+            if (remaining == 0) {
+                pooled.reset();
+                pooled.stash.free(pooled);
+            } else if (remaining < 0) {
+                throw new IllegalStateException("Pooled event " + event.getClass().getName() + " was dispatched after it went back to its pool");
+            }
+        }
+    }
+}
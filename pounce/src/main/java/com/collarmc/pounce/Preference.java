@@ -0,0 +1,13 @@
+package com.collarmc.pounce;
+
+public enum Preference {
+    MAIN,
+    DISPATCH,
+    CALLER,
+    POOL,
+    /**
+     * Default of {@link EventInfo#preference()}, leaving the preference of each {@link Subscribe} method in place.
+     * Not a preference a subscriber method can have.
+     */
+    UNSET
+}
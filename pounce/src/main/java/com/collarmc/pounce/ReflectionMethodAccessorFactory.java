@@ -0,0 +1,39 @@
+package com.collarmc.pounce;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes subscriber methods reflectively
+ */
+final class ReflectionMethodAccessorFactory implements MethodAccessorFactory {
+
+    static final ReflectionMethodAccessorFactory INSTANCE = new ReflectionMethodAccessorFactory();
+
+    private ReflectionMethodAccessorFactory() {}
+
+    @Override
+    public MethodAccessor create(Method method, Class<?> eventType) {
+        if (!method.trySetAccessible()) {
+            throw new IllegalStateException("Subscriber method " + method + " is not accessible. Open its package to pounce or make it public.");
+        }
+        return new MethodAccessor() {
+            @Override
+            public void executeEvent(Object handler, Object event) {
+                try {
+                    method.invoke(handler, event);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        };
+    }
+}
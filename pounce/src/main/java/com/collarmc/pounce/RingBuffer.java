@@ -0,0 +1,169 @@
+package com.collarmc.pounce;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Preallocated multi-producer ring buffer of events drained in batches by dedicated consumer threads.
+ * Each slot carries a sequence number: a producer claims a position, waits until the slot's sequence says it is free,
+ * writes the event and publishes it by advancing the sequence, consumers claim runs of published slots and hand them
+ * back by advancing the sequence a lap further. Publishing never allocates.
+ * <p>
+ * Once closed, the last consumer to find nothing left sets {@link #CLOSED} on the producer sequence in the same
+ * compare and set that checks it has caught up. A producer claiming a position after that sees the bit and gets its
+ * event back, while one that claimed a position before keeps the consumers running until they have dispatched it.
+ */
+final class RingBuffer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RingBuffer.class.getName());
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MAX_BATCH = 256;
+    /**
+     * Set on the producer sequence once the consumers have stopped, far above any position actually reached
+     */
+    private static final long CLOSED = 1L << 62;
+
+    private final Object[] events;
+    private final CancelableCallback[] callbacks;
+    private final long[] sequences;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final BiConsumer<Object, CancelableCallback> consumer;
+    private final Sequence producerSequence = new Sequence();
+    private final Sequence consumerSequence = new Sequence();
+    private final Thread[] threads;
+    private volatile boolean running = true;
+
+    /**
+     * @param name         of the consumer threads
+     * @param capacity     number of slots, rounded up to a power of two
+     * @param waitStrategy for idle consumers and producers finding the buffer full
+     * @param consumers    number of consumer threads
+     * @param consumer     dispatching each event to its listeners
+     */
+    RingBuffer(String name, int capacity, WaitStrategy waitStrategy, int consumers, BiConsumer<Object, CancelableCallback> consumer) {
+        if (capacity <= 0 || consumers <= 0) {
+            throw new IllegalArgumentException("capacity and consumers must be positive");
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.events = new Object[size];
+        this.callbacks = new CancelableCallback[size];
+        this.sequences = new long[size];
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i;
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        this.consumer = consumer;
+        this.threads = new Thread[consumers];
+        for (int i = 0; i < consumers; i++) {
+            threads[i] = new Thread(this::consume, name + "-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Publishes an event, waiting while the buffer is full
+     * @return false if the consumers have stopped, leaving the event to the caller
+     */
+    boolean publish(Object event, CancelableCallback callback) {
+        long position = producerSequence.getAndIncrement();
+        if (position >= CLOSED) {
+            return false;
+        }
+        int index = (int) position & mask;
+        while ((long) SEQUENCES.getAcquire(sequences, index) != position) {
+            waitStrategy.idle();
+        }
+        events[index] = event;
+        callbacks[index] = callback;
+        SEQUENCES.setRelease(sequences, index, position + 1);
+        return true;
+    }
+
+    private void consume() {
+        while (true) {
+            long position = consumerSequence.get();
+            int available = 0;
+            while (available < MAX_BATCH && (long) SEQUENCES.getAcquire(sequences, (int) (position + available) & mask) == position + available + 1) {
+                available++;
+            }
+            if (available == 0) {
+                if (!running && (producerSequence.get() >= CLOSED || producerSequence.compareAndSet(position, position + CLOSED))) {
+                    return;
+                }
+                waitStrategy.idle();
+                continue;
+            }
+            if (!consumerSequence.compareAndSet(position, position + available)) {
+                // another consumer claimed part of the run
+                continue;
+            }
+            for (long next = position; next < position + available; next++) {
+                int index = (int) next & mask;
+                Object event = events[index];
+                CancelableCallback callback = callbacks[index];
+                events[index] = null;
+                callbacks[index] = null;
+                SEQUENCES.setRelease(sequences, index, next + mask + 1);
+                try {
+                    consumer.accept(event, callback);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Problem dispatching " + event.getClass().getName() + " from ring buffer", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events and waits for the consumers to drain the ones already published
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counter padded on both sides so producers and consumers do not share cache lines
+     */
+    @SuppressWarnings("unused")
+    private static final class Sequence {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Sequence.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+        private volatile long value;
+        private long p9, p10, p11, p12, p13, p14, p15;
+
+        long get() {
+            return value;
+        }
+
+        long getAndIncrement() {
+            return (long) VALUE.getAndAdd(this, 1L);
+        }
+
+        boolean compareAndSet(long expected, long value) {
+            return VALUE.compareAndSet(this, expected, value);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.collarmc.pounce;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest event of each sticky event class, replayed to listeners subscribing after it was dispatched.
+ * Bounded, evicting the class whose event was dispatched or replayed least recently.
+ */
+final class StickyEvents {
+
+    private final int capacity;
+    private final Map<Class<?>, Object> events;
+
+    /**
+     * @param capacity maximum number of event classes to keep an event for
+     */
+    StickyEvents(int capacity) {
+        this.capacity = capacity;
+        this.events = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Class<?>, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    synchronized void put(Object event) {
+        events.put(event.getClass(), event);
+    }
+
+    /**
+     * @return the latest event of exactly eventClass or null
+     */
+    synchronized Object get(Class<?> eventClass) {
+        return events.get(eventClass);
+    }
+
+    /**
+     * @return the latest event of exactly eventClass, which is no longer replayed, or null
+     */
+    synchronized Object remove(Class<?> eventClass) {
+        return events.remove(eventClass);
+    }
+
+    /**
+     * @return the cached events that are instances of one of types, which count as replayed for eviction
+     */
+    synchronized List<Object> matching(List<Class<?>> types) {
+        List<Object> matching = new ArrayList<>();
+        for (Object event : events.values()) {
+            for (Class<?> type : types) {
+                if (type.isInstance(event)) {
+                    matching.add(event);
+                    break;
+                }
+            }
+        }
+        for (Object event : matching) {
+            events.get(event.getClass());
+        }
+        return matching;
+    }
+}
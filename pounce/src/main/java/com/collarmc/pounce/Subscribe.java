@@ -0,0 +1,33 @@
+package com.collarmc.pounce;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.function.Predicate;
+
+/**
+ * Annotate like so:
+ *  @Subscribe(preference=Preference.CALLER, priority=99)
+ *  methodName(MyEvent)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+    Preference value() default Preference.POOL;
+    int priority() default 100;
+
+    /**
+     * Name of the executor registered with {@link EventBus.Builder#executor(String, java.util.concurrent.Executor)}
+     * that runs this listener when its preference is {@link Preference#POOL}. Empty for the bus default.
+     */
+    String executor() default "";
+
+    /**
+     * Predicate events have to match for this listener to be invoked, instantiated once through its no-argument
+     * constructor. {@link Predicate} itself means no filter. To only receive events for one key of many, such as a
+     * world, subscribe with {@link EventBus#subscribe(Object, Object)} instead.
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Predicate> filter() default Predicate.class;
+}
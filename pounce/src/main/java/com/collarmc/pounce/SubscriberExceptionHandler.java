@@ -0,0 +1,38 @@
+package com.collarmc.pounce;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Handles exceptions thrown by subscriber methods, see {@link EventBus.Builder#exceptionHandler(SubscriberExceptionHandler)}.
+ * Called on the thread that ran the subscriber method. Unless the handler throws, the remaining listeners of the
+ * event still run.
+ */
+@FunctionalInterface
+public interface SubscriberExceptionHandler {
+    /**
+     * Logs the exception and carries on with the next listener, the default
+     */
+    SubscriberExceptionHandler LOG = (exception, subscriberMethod, event) -> Logger.getLogger(EventBus.class.getName())
+            .log(Level.SEVERE, "Subscriber method " + subscriberMethod + " threw handling " + event.getClass().getName(), exception);
+
+    /**
+     * Rethrows the exception, skipping the remaining listeners of the event
+     */
+    SubscriberExceptionHandler PROPAGATE = (exception, subscriberMethod, event) -> {
+        if (exception instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (exception instanceof Error error) {
+            throw error;
+        }
+        throw new RuntimeException(exception);
+    };
+
+    /**
+     * @param exception        thrown by the subscriber method
+     * @param subscriberMethod that threw
+     * @param event            it was handling
+     */
+    void handleException(Throwable exception, SubscriberMethod subscriberMethod, Object event);
+}
@@ -0,0 +1,19 @@
+package com.collarmc.pounce;
+
+/**
+ * Subscriber methods declared by a listener class, generated at compile time by pounce-processor as
+ * {@code <listener binary name>$$PounceSubscribers}. When present it is used instead of scanning the class
+ * reflectively and generating accessors at runtime.
+ */
+public interface SubscriberIndex {
+
+    /**
+     * Appended to the binary name of a listener class to name its index
+     */
+    String SUFFIX = "$$PounceSubscribers";
+
+    /**
+     * @return the subscriber methods declared by the listener class itself, excluding superclasses
+     */
+    SubscriberMethod[] subscribers();
+}
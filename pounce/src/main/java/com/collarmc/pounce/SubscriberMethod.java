@@ -0,0 +1,43 @@
+package com.collarmc.pounce;
+
+import java.util.function.Predicate;
+
+/**
+ * A {@link Subscribe} method of a listener class, shared by every instance of that class
+ * @param declaringClass the class declaring the method
+ * @param name           the method name
+ * @param eventType      the event type it accepts
+ * @param preference     where it will be executed
+ * @param priority       order relative to other listeners, highest first
+ * @param executor       name of the executor running it in the pool, empty for the bus default
+ * @param accessor       invoking the method on a given instance
+ * @param filter         events have to match to be passed to the method, or null
+ */
+public record SubscriberMethod(
+        Class<?> declaringClass,
+        String name,
+        Class<?> eventType,
+        Preference preference,
+        int priority,
+        String executor,
+        MethodAccessor accessor,
+        Predicate<Object> filter
+) {
+    public SubscriberMethod {
+        if (preference == Preference.UNSET) {
+            throw new IllegalArgumentException("Subscriber method " + declaringClass.getName() + "." + name + " has no preference");
+        }
+    }
+
+    /**
+     * Creates a subscriber method without a filter
+     */
+    public SubscriberMethod(Class<?> declaringClass, String name, Class<?> eventType, Preference preference, int priority, String executor, MethodAccessor accessor) {
+        this(declaringClass, name, eventType, preference, priority, executor, accessor, null);
+    }
+
+    @Override
+    public String toString() {
+        return declaringClass.getName() + "." + name + "(" + eventType.getName() + ")";
+    }
+}
@@ -0,0 +1,114 @@
+package com.collarmc.pounce;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Scans listener classes for {@link Subscribe} methods once and caches the result, including the
+ * {@link MethodAccessor}s created by one {@link MethodAccessorFactory}, so subscribing further instances of a class
+ * needs neither reflection nor class generation. Classes with a generated {@link SubscriberIndex} are not scanned.
+ */
+final class SubscriberMethods {
+
+    private static final SubscriberMethod[] NONE = new SubscriberMethod[0];
+
+    /**
+     * One cache per factory, shared by every bus using it
+     */
+    private static final Map<MethodAccessorFactory, SubscriberMethods> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MethodAccessorFactory accessorFactory;
+
+    /**
+     * Subscriber methods of a class and its superclasses. Methods are scanned per declaring class so an accessor
+     * created for a superclass method is shared by all of its subclasses.
+     */
+    private final ClassValue<SubscriberMethod[]> subscribers = new ClassValue<>() {
+        @Override
+        protected SubscriberMethod[] computeValue(Class<?> type) {
+            List<SubscriberMethod> subscriberMethods = new ArrayList<>();
+            SubscriberIndex index = index(type);
+            if (index != null) {
+                subscriberMethods.addAll(List.of(index.subscribers()));
+            } else {
+                for (Method method : type.getDeclaredMethods()) {
+                    if (method.getParameterCount() == 1 && method.isAnnotationPresent(Subscribe.class)) {
+                        subscriberMethods.add(create(method));
+                    }
+                }
+            }
+            Class<?> superclass = type.getSuperclass();
+            if (superclass != null) {
+                subscriberMethods.addAll(List.of(get(superclass)));
+            }
+            return subscriberMethods.isEmpty() ? NONE : subscriberMethods.toArray(NONE);
+        }
+    };
+
+    private SubscriberMethods(MethodAccessorFactory accessorFactory) {
+        this.accessorFactory = accessorFactory;
+    }
+
+    /**
+     * @return the cache of accessors created by accessorFactory
+     */
+    static SubscriberMethods forFactory(MethodAccessorFactory accessorFactory) {
+        return CACHES.computeIfAbsent(accessorFactory, SubscriberMethods::new);
+    }
+
+    /**
+     * @return the subscriber methods declared by listenerClass and its superclasses
+     * @throws IllegalStateException if a subscriber method cannot be accessed
+     */
+    SubscriberMethod[] get(Class<?> listenerClass) {
+        return subscribers.get(listenerClass);
+    }
+
+    /**
+     * @return the index generated for type or null if it was not compiled with pounce-processor
+     */
+    private static SubscriberIndex index(Class<?> type) {
+        if (type.getClassLoader() == null) {
+            return null;
+        }
+        Class<?> indexClass;
+        try {
+            indexClass = Class.forName(type.getName() + SubscriberIndex.SUFFIX, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (SubscriberIndex) indexClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Could not create subscriber index " + indexClass.getName(), e);
+        }
+    }
+
+    private SubscriberMethod create(Method method) {
+        Class<?> eventClass = method.getParameterTypes()[0];
+        Subscribe subscribe = method.getAnnotation(Subscribe.class);
+        EventInfo eventInfo = eventClass.getAnnotation(EventInfo.class);
+        Preference preference = eventInfo != null && eventInfo.preference() != Preference.UNSET ? eventInfo.preference() : subscribe.value();
+        return new SubscriberMethod(method.getDeclaringClass(), method.getName(), eventClass, preference, subscribe.priority(), subscribe.executor(),
+                accessorFactory.create(method, eventClass), filter(method, subscribe));
+    }
+
+    /**
+     * @return an instance of the filter of method or null if it has none
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate<Object> filter(Method method, Subscribe subscribe) {
+        if (subscribe.filter() == Predicate.class) {
+            return null;
+        }
+        try {
+            Constructor<? extends Predicate> constructor = subscribe.filter().getDeclaredConstructor();
+            constructor.trySetAccessible();
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Filter " + subscribe.filter().getName() + " of subscriber method " + method + " needs an accessible no-argument constructor", e);
+        }
+    }
+}
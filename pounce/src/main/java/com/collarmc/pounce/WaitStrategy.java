@@ -0,0 +1,44 @@
+package com.collarmc.pounce;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How ring buffer consumers wait for events, and producers for space, trading CPU for latency
+ */
+public enum WaitStrategy {
+    /**
+     * Spin on the CPU, lowest latency while burning a core per waiting thread
+     */
+    BUSY_SPIN {
+        @Override
+        void idle() {
+            Thread.onSpinWait();
+        }
+    },
+    /**
+     * Yield the CPU to other threads between checks
+     */
+    YIELD {
+        @Override
+        void idle() {
+            Thread.yield();
+        }
+    },
+    /**
+     * Park briefly between checks, cheapest on CPU with up to {@link #PARK_NANOS} added latency
+     */
+    PARK {
+        @Override
+        void idle() {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    };
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Called by a thread each time it finds nothing to do
+     */
+    abstract void idle();
+}
@@ -0,0 +1,68 @@
+package com.collarmc.pounce;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
+
+/**
+ * Target of the listeners of a weak subscription, standing in for the listener so the bus does not keep it alive.
+ * Its listeners invoke subscriber methods through a {@link Accessor} that dereferences it, so listeners subscribed
+ * strongly never pay for the indirection.
+ */
+final class WeakListener extends WeakReference<Object> {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Identity hash code of the listener, to find the subscription again while the listener is alive
+     */
+    final int hash;
+
+    private WeakListener(Object listener) {
+        super(listener);
+        this.hash = System.identityHashCode(listener);
+    }
+
+    /**
+     * @param listener to reference weakly
+     * @param pruner   to call with the new reference once listener has been collected
+     * @return reference to listener
+     */
+    static WeakListener create(Object listener, Consumer<WeakListener> pruner) {
+        WeakListener weakListener = new WeakListener(listener);
+        CLEANER.register(listener, new Prune(new WeakReference<>(pruner), weakListener));
+        return weakListener;
+    }
+
+    /**
+     * Cleaning action, only holding the pruner weakly so a listener outliving its bus does not keep the bus alive
+     */
+    private record Prune(WeakReference<Consumer<WeakListener>> pruner, WeakListener weakListener) implements Runnable {
+        @Override
+        public void run() {
+            Consumer<WeakListener> consumer = pruner.get();
+            if (consumer != null) {
+                consumer.accept(weakListener);
+            }
+        }
+    }
+
+    /**
+     * Invokes a subscriber method on the listener referenced by the handler, doing nothing once it has been collected
+     */
+    static final class Accessor extends MethodAccessor {
+        private final MethodAccessor delegate;
+
+        Accessor(MethodAccessor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void executeEvent(Object handler, Object event) {
+            Object listener = ((WeakListener) handler).get();
+            if (listener != null) {
+                delegate.executeEvent(listener, event);
+            }
+        }
+    }
+}
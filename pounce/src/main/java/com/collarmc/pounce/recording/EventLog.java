@@ -0,0 +1,129 @@
+package com.collarmc.pounce.recording;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads an event log written by {@link EventLogWriter}.
+ * A log starts with {@link #MAGIC} followed by records of a kind byte, the type id and for events the nanoseconds
+ * since the previous event, all as variable length longs, and a length prefixed payload. Type records map a type id to
+ * the event class name before its first event, event records hold the serialized event.
+ */
+public final class EventLog implements AutoCloseable {
+
+    static final byte[] MAGIC = "POUNCE\u0000\u0001".getBytes(StandardCharsets.ISO_8859_1);
+    static final byte TYPE = 0;
+    static final byte EVENT = 1;
+
+    private final DataInputStream in;
+    private final EventSerializers serializers;
+    private final List<Class<?>> types = new ArrayList<>();
+
+    private EventLog(DataInputStream in, EventSerializers serializers) {
+        this.in = in;
+        this.serializers = serializers;
+    }
+
+    /**
+     * @param path        of the log
+     * @param serializers to read events with, needs a serializer for every class in the log
+     * @return the log, positioned at its first event
+     */
+    public static EventLog open(Path path, EventSerializers serializers) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            in.readFully(magic);
+        } catch (EOFException e) {
+            magic = new byte[0];
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            in.close();
+            throw new IOException(path + " is not an event log");
+        }
+        return new EventLog(in, serializers);
+    }
+
+    /**
+     * @return the next event or null at the end of the log
+     */
+    public RecordedEvent next() throws IOException {
+        while (true) {
+            int kind = in.read();
+            if (kind == -1) {
+                return null;
+            }
+            int typeId = (int) readVarLong(in);
+            long deltaNanos = kind == EVENT ? readVarLong(in) : 0;
+            byte[] payload = new byte[(int) readVarLong(in)];
+            in.readFully(payload);
+            DataInputStream payloadIn = new DataInputStream(new ByteArrayInputStream(payload));
+            if (kind == TYPE) {
+                types.add(typeId, serializers.forName(payloadIn.readUTF()));
+            } else if (kind == EVENT) {
+                return new RecordedEvent(deltaNanos, serializers.get(types.get(typeId)).read(payloadIn));
+            } else {
+                throw new IOException("Unknown record kind " + kind);
+            }
+        }
+    }
+
+    /**
+     * @return every remaining event of the log
+     */
+    public List<RecordedEvent> readAll() throws IOException {
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent event = next(); event != null; event = next()) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated event log");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+
+    /**
+     * @param deltaNanos nanoseconds between the dispatch of the previous event and this one
+     * @param event      the event
+     */
+    public record RecordedEvent(long deltaNanos, Object event) {}
+}
@@ -0,0 +1,230 @@
+package com.collarmc.pounce.recording;
+
+import com.collarmc.pounce.EventRecorder;
+import com.collarmc.pounce.PooledEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records dispatched events to an event log. The dispatching thread only queues the event and when it was
+ * dispatched, a background thread serializes queued events and writes them through a buffered {@link FileChannel}.
+ * Events are serialized after dispatch, so they must not be mutated once dispatched. {@link PooledEvent}s are the
+ * exception, they are serialized by the dispatching thread as they go back to their pool once dispatched.
+ * When the queue is full events are dropped rather than slowing dispatch down, as are events failing to serialize,
+ * see {@link #dropped()}.
+ * <pre>
+ * try (EventLogWriter writer = new EventLogWriter(path, serializers, 65536)) {
+ *     EventBus eventBus = EventBus.builder(mainThread).recorder(writer).build();
+ *     ...
+ * }
+ * </pre>
+ */
+public final class EventLogWriter implements EventRecorder, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(EventLogWriter.class.getName());
+    private static final int MAX_DRAIN = 1024;
+
+    private final EventSerializers serializers;
+    private final BlockingQueue<Recorded> queue;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream payload = new DataOutputStream(bytes);
+    private final Map<Class<?>, Integer> typeIds = new HashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread thread;
+    private long previousNanos;
+    private volatile boolean running = true;
+
+    /**
+     * @param path          of the log, replaced if it exists
+     * @param serializers   to write events with
+     * @param queueCapacity maximum number of events waiting to be written
+     */
+    public EventLogWriter(Path path, EventSerializers serializers, int queueCapacity) throws IOException {
+        this.serializers = serializers;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.put(EventLog.MAGIC);
+        this.thread = new Thread(this::run, "pounce-event-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void record(Object event) {
+        EventSerializer<?> serializer = serializers.get(event.getClass());
+        if (serializer == null) {
+            return;
+        }
+        long nanos = System.nanoTime();
+        Recorded recorded;
+        if (event instanceof PooledEvent) {
+            byte[] serialized = serialize(serializer, event);
+            if (serialized == null) {
+                dropped.increment();
+                return;
+            }
+            recorded = new Recorded(nanos, event.getClass(), null, serialized);
+        } else {
+            recorded = new Recorded(nanos, event.getClass(), event, null);
+        }
+        if (!queue.offer(recorded)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return the payload of event or null if it could not be serialized
+     */
+    private static byte[] serialize(EventSerializer<?> serializer, Object event) {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try {
+            write(serializer, event, new DataOutputStream(serialized));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Could not serialize " + event.getClass().getName(), e);
+            return null;
+        }
+        return serialized.toByteArray();
+    }
+
+    /**
+     * @return number of events dropped because the queue was full or they could not be serialized
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        List<Recorded> batch = new ArrayList<>(MAX_DRAIN);
+        try {
+            while (running || !queue.isEmpty()) {
+                Recorded first = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                for (Recorded recorded : batch) {
+                    write(recorded);
+                }
+                batch.clear();
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Could not write event log, recording stopped", e);
+            running = false;
+            queue.clear();
+        }
+    }
+
+    private void write(Recorded recorded) throws IOException {
+        Class<?> eventClass = recorded.eventClass();
+        Integer typeId = typeIds.get(eventClass);
+        if (typeId == null) {
+            typeId = typeIds.size();
+            typeIds.put(eventClass, typeId);
+            bytes.reset();
+            payload.writeUTF(eventClass.getName());
+            writeRecord(EventLog.TYPE, typeId, 0);
+        }
+        bytes.reset();
+        if (recorded.serialized() != null) {
+            bytes.write(recorded.serialized());
+        } else {
+            try {
+                write(serializers.get(eventClass), recorded.event(), payload);
+            } catch (IOException | RuntimeException e) {
+                // only the event is lost, the serializer wrote to memory and not to the log
+                LOGGER.log(Level.SEVERE, "Could not serialize " + eventClass.getName(), e);
+                dropped.increment();
+                return;
+            }
+        }
+        long delta = previousNanos == 0 ? 0 : recorded.nanos() - previousNanos;
+        previousNanos = recorded.nanos();
+        writeRecord(EventLog.EVENT, typeId, Math.max(0, delta));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void write(EventSerializer<T> serializer, Object event, DataOutputStream out) throws IOException {
+        serializer.write((T) event, out);
+    }
+
+    /**
+     * Appends a record with the payload written to {@link #bytes}
+     */
+    private void writeRecord(byte kind, int typeId, long deltaNanos) throws IOException {
+        int length = bytes.size();
+        ensureCapacity(1 + 5 + 10 + 5 + length);
+        buffer.put(kind);
+        EventLog.writeVarLong(buffer, typeId);
+        if (kind == EventLog.EVENT) {
+            EventLog.writeVarLong(buffer, deltaNanos);
+        }
+        EventLog.writeVarLong(buffer, length);
+        if (length > buffer.remaining()) {
+            // larger than the buffer, write it directly
+            flush();
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+        } else {
+            buffer.put(bytes.toByteArray());
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < Math.min(bytes, buffer.capacity())) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the events queued so far and closes the log
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @param event      to serialize on the writer thread, or null if it was serialized when it was recorded
+     * @param serialized payload of the event serialized when it was recorded, or null
+     */
+    private record Recorded(long nanos, Class<?> eventClass, Object event, byte[] serialized) {}
+}
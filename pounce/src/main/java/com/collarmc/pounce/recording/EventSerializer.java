@@ -0,0 +1,23 @@
+package com.collarmc.pounce.recording;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes events of one type to an event log and reads them back for replay
+ * @param <T> event type
+ */
+public interface EventSerializer<T> {
+    /**
+     * @param event to write
+     * @param out   to write it to
+     */
+    void write(T event, DataOutput out) throws IOException;
+
+    /**
+     * @param in to read an event written by {@link #write(Object, DataOutput)} from
+     * @return the event
+     */
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.collarmc.pounce.recording;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializers by the exact event class they handle, shared by the writer and reader of an event log.
+ * Events of classes without a serializer are not recorded.
+ */
+public final class EventSerializers {
+
+    private final Map<Class<?>, EventSerializer<?>> serializers = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+
+    /**
+     * @param eventClass of the events
+     * @param serializer to write and read them with
+     */
+    public <T> EventSerializers register(Class<T> eventClass, EventSerializer<T> serializer) {
+        serializers.put(eventClass, serializer);
+        classes.put(eventClass.getName(), eventClass);
+        return this;
+    }
+
+    /**
+     * @return the serializer of eventClass or null if it has none
+     */
+    @SuppressWarnings("unchecked")
+    <T> EventSerializer<T> get(Class<T> eventClass) {
+        return (EventSerializer<T>) serializers.get(eventClass);
+    }
+
+    /**
+     * @return the registered class of that name
+     * @throws IllegalStateException if no serializer is registered for it
+     */
+    Class<?> forName(String name) {
+        Class<?> eventClass = classes.get(name);
+        if (eventClass == null) {
+            throw new IllegalStateException("No serializer registered for " + name);
+        }
+        return eventClass;
+    }
+}
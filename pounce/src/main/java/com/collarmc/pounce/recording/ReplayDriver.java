@@ -0,0 +1,87 @@
+package com.collarmc.pounce.recording;
+
+import com.collarmc.pounce.EventDispatcher;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded event log against a bus, deterministically in the order it was recorded, measuring how long
+ * each dispatch takes. Useful for load testing listeners with production traffic.
+ * <pre>
+ * List&lt;RecordedEvent&gt; events;
+ * try (EventLog log = EventLog.open(path, serializers)) {
+ *     events = log.readAll();
+ * }
+ * ReplayReport report = new ReplayDriver(eventBus).speed(0).replay(events);
+ * </pre>
+ */
+public final class ReplayDriver {
+
+    private final EventDispatcher eventBus;
+    private double speed = 1;
+
+    /**
+     * @param eventBus to dispatch the recorded events on
+     */
+    public ReplayDriver(EventDispatcher eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * @param speed multiple of the recorded pace to replay at, 1 replays at the original pace and 0 as fast as possible
+     * @return driver
+     */
+    public ReplayDriver speed(double speed) {
+        if (speed < 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("speed must not be negative");
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * Replays the remaining events of log
+     * @param log to replay
+     * @return report of the replay
+     */
+    public ReplayReport replay(EventLog log) throws IOException {
+        return replay(log.readAll());
+    }
+
+    /**
+     * Replays events, read ahead of time so reading the log is not measured
+     * @param events to replay
+     * @return report of the replay
+     */
+    public ReplayReport replay(List<EventLog.RecordedEvent> events) {
+        long[] latencies = new long[events.size()];
+        long start = System.nanoTime();
+        long due = start;
+        for (int i = 0; i < latencies.length; i++) {
+            EventLog.RecordedEvent recorded = events.get(i);
+            if (speed > 0) {
+                due += (long) (recorded.deltaNanos() / speed);
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long dispatched = System.nanoTime();
+            eventBus.dispatch(recorded.event());
+            latencies[i] = System.nanoTime() - dispatched;
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new ReplayReport(latencies.length, elapsed, percentile(latencies, 0.5), percentile(latencies, 0.9),
+                percentile(latencies, 0.99), latencies.length == 0 ? 0 : latencies[latencies.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
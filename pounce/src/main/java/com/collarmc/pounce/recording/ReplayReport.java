@@ -0,0 +1,20 @@
+package com.collarmc.pounce.recording;
+
+/**
+ * Outcome of {@link ReplayDriver#replay(java.util.List)}
+ * @param events       number of events dispatched
+ * @param elapsedNanos wall time of the whole replay, including waiting to keep the recorded pace
+ * @param p50Nanos     median dispatch latency
+ * @param p90Nanos     90th percentile dispatch latency
+ * @param p99Nanos     99th percentile dispatch latency
+ * @param maxNanos     slowest dispatch
+ */
+public record ReplayReport(int events, long elapsedNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+    /**
+     * @return events dispatched per second
+     */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : events * 1_000_000_000d / elapsedNanos;
+    }
+}
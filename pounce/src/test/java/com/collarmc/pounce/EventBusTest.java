@@ -0,0 +1,1384 @@
+package com.collarmc.pounce;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+public class EventBusTest {
+
+    @Test
+    public void privateSubscriber() {
+        try {
+            PrivateListener listener = new PrivateListener();
+            EventBus eventBus = new EventBus(Runnable::run, MethodAccessorFactory.asm());
+            eventBus.subscribe(listener);
+            Assert.fail("asm accessors can only call public methods");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Subscriber method private void com.collarmc.pounce.EventBusTest$PrivateListener.exec(com.collarmc.pounce.EventBusTest$Event) is private. Make this method public.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void privateSubscriberWithHiddenClasses() {
+        PrivateListener listener = new PrivateListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        // Fire it
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+    }
+
+    @Test
+    public void reflection() {
+        CallerListenerA listener = new CallerListenerA();
+        EventBus eventBus = new EventBus(Runnable::run, MethodAccessorFactory.reflection());
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        Assert.assertEquals(e, listener.event2);
+    }
+
+    @Test
+    public void unsubscribe() {
+        // Subscribe to the event
+        CallerListener listener = new CallerListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+
+        Event e = new Event();
+        // Fire it
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        listener.event = null;
+
+        // Unsubscribe
+        eventBus.unsubscribe(listener);
+
+        // dispatching the event the listener should be null
+        eventBus.dispatch(e);
+        Assert.assertNull(listener.event);
+
+        // subscribe and dispatch should fire the listener
+        eventBus.subscribe(listener);
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+    }
+
+    @Test
+    public void unsubscribeKeepsOrderOfRemainingListeners() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        List<String> calls = new ArrayList<>();
+        NamedListener a = new NamedListener("a", calls);
+        NamedListener b = new NamedListener("b", calls);
+        NamedListener c = new NamedListener("c", calls);
+        eventBus.subscribe(a);
+        eventBus.subscribe(b);
+        eventBus.subscribe(c);
+        eventBus.dispatch(new SubEvent());
+        Assert.assertEquals(List.of("a", "b", "c"), calls);
+
+        calls.clear();
+        eventBus.unsubscribe(b);
+        eventBus.dispatch(new SubEvent());
+        Assert.assertEquals(List.of("a", "c"), calls);
+
+        calls.clear();
+        eventBus.subscribe(b);
+        eventBus.unsubscribe(a);
+        eventBus.unsubscribe(c);
+        eventBus.dispatch(new SubEvent());
+        Assert.assertEquals(List.of("b"), calls);
+    }
+
+    @Test
+    public void inheritedModules() {
+        EventBus eventBus = new EventBus(Runnable::run);
+
+
+        CallerListener listener = new CallerListener();
+        eventBus.subscribe(listener);
+
+        CallerListenerA listenerA = new CallerListenerA();
+        eventBus.subscribe(listenerA);
+
+        CallerListenerB listenerB = new CallerListenerB();
+        eventBus.subscribe(listenerB);
+
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        Assert.assertEquals(e, listenerA.event);
+        Assert.assertEquals(e, listenerA.event2);
+        Assert.assertEquals(e, listenerB.event);
+        Assert.assertEquals(e, listenerB.event3);
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void subscriberMethodsAreShared() {
+        SubscriberMethods subscriberMethods = SubscriberMethods.forFactory(MethodAccessorFactory.hiddenClasses());
+        Assert.assertSame(subscriberMethods.get(CallerListenerA.class)[1].accessor(), subscriberMethods.get(CallerListenerB.class)[1].accessor());
+
+        EventBus eventBus = new EventBus(Runnable::run);
+        CallerListener first = new CallerListener();
+        CallerListener second = new CallerListener();
+        eventBus.subscribe(first);
+        eventBus.subscribe(second);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, first.event);
+        Assert.assertEquals(e, second.event);
+    }
+
+    @Test
+    public void caller() {
+        CallerListener listener = new CallerListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void main() {
+        MainListener listener = new MainListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void batchedMain() {
+        List<Runnable> mainThread = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(mainThread::add)
+                .batchMainThread(2)
+                .coalesce(KeyedEvent.class, KeyedEvent::key)
+                .build();
+        KeyedListener listener = new KeyedListener();
+        eventBus.subscribe(listener);
+        eventBus.dispatch(new KeyedEvent("a", 1));
+        eventBus.dispatch(new KeyedEvent("b", 1));
+        eventBus.dispatch(new KeyedEvent("a", 2));
+        eventBus.dispatch(new KeyedEvent("c", 1));
+        Assert.assertEquals(1, mainThread.size());
+
+        // first drain runs its budget of two and reschedules itself for the rest
+        mainThread.remove(0).run();
+        Assert.assertEquals(List.of(new KeyedEvent("a", 2), new KeyedEvent("b", 1)), listener.events);
+        Assert.assertEquals(1, mainThread.size());
+        mainThread.remove(0).run();
+        Assert.assertEquals(3, listener.events.size());
+        Assert.assertTrue(mainThread.isEmpty());
+    }
+
+    @Test
+    public void batchedMainCoalescesPerListenerInstance() {
+        List<Runnable> mainThread = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(mainThread::add)
+                .batchMainThread(4)
+                .coalesce(KeyedEvent.class, KeyedEvent::key)
+                .build();
+        EqualKeyedListener first = new EqualKeyedListener();
+        EqualKeyedListener second = new EqualKeyedListener();
+        eventBus.subscribe(first);
+        eventBus.subscribe(second);
+        eventBus.dispatch(new KeyedEvent("a", 1));
+        mainThread.remove(0).run();
+        Assert.assertEquals(List.of(new KeyedEvent("a", 1)), first.events);
+        Assert.assertEquals(List.of(new KeyedEvent("a", 1)), second.events);
+    }
+
+    @Test
+    public void pool() throws InterruptedException {
+        PoolListener listener = new PoolListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+        Assert.assertEquals(e, listener.event);
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void namedExecutor() {
+        List<Runnable> db = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(Runnable::run)
+                .executor(Runnable::run)
+                .executor("db", db::add)
+                .build();
+        ExecutorListener listener = new ExecutorListener();
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        Assert.assertNull(listener.dbEvent);
+        Assert.assertEquals(1, db.size());
+        db.get(0).run();
+        Assert.assertEquals(e, listener.dbEvent);
+    }
+
+    @Test
+    public void boundedExecutorDropsOldest() {
+        List<Runnable> pool = new ArrayList<>();
+        BoundedExecutor executor = new BoundedExecutor(pool::add, 2, 1, OverflowPolicy.DROP_OLDEST);
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int task = i;
+            executor.execute(() -> ran.add(task));
+        }
+        Assert.assertEquals(2, executor.droppedTasks());
+        // a single worker drains whatever is left in the queue
+        Assert.assertEquals(1, pool.size());
+        pool.get(0).run();
+        Assert.assertEquals(List.of(2, 3), ran);
+    }
+
+    @Test
+    public void cancelable() {
+        CancelableListener listener = new CancelableListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+        CancelableEvent e = new CancelableEvent();
+        eventBus.dispatch(e);
+        Assert.assertEquals(10, listener.value);
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void metrics() throws IOException {
+        List<String> slow = new ArrayList<>();
+        DispatchMetrics metrics = new DispatchMetrics(Duration.ZERO, (subscriberMethod, event, nanos) -> slow.add(subscriberMethod.name()));
+        EventBus eventBus = EventBus.builder(Runnable::run).instrument(metrics).build();
+        eventBus.subscribe(new CancelableListener());
+        eventBus.subscribe(new CallerListener());
+        eventBus.dispatch(new CancelableEvent());
+        eventBus.dispatch(new Event());
+        eventBus.dispatch(new Event());
+        DispatchMetrics.Snapshot snapshot = metrics.snapshot();
+        DispatchMetrics.Stats canceling = snapshot.subscriberMethods().entrySet().stream()
+                .filter(entry -> entry.getKey().eventType() == CancelableEvent.class)
+                .findFirst().orElseThrow().getValue();
+        Assert.assertEquals(1, canceling.invocations());
+        Assert.assertEquals(1, canceling.cancellations());
+        Assert.assertEquals(2, snapshot.eventTypes().get(Event.class).invocations());
+        Assert.assertEquals(3, slow.size());
+        StringBuilder exported = new StringBuilder();
+        snapshot.export(exported);
+        Assert.assertTrue(exported.toString().contains("pounce_event_invocations_total{type=\"" + Event.class + "\"} 2"));
+    }
+
+    @Test
+    public void exceptionsAreIsolated() {
+        List<String> handled = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(Runnable::run)
+                .exceptionHandler((exception, subscriberMethod, event) -> handled.add(subscriberMethod.name() + ":" + exception.getMessage()))
+                .build();
+        ThrowingListener throwing = new ThrowingListener();
+        CallerListener caller = new CallerListener();
+        eventBus.subscribe(throwing);
+        eventBus.subscribe(caller);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(List.of("exec:boom"), handled);
+        Assert.assertEquals(e, caller.event);
+    }
+
+    @Test
+    public void quarantine() {
+        List<String> handled = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(Runnable::run)
+                .exceptionHandler((exception, subscriberMethod, event) -> handled.add(subscriberMethod.name()))
+                .quarantine(2)
+                .build();
+        ThrowingListener throwing = new ThrowingListener();
+        eventBus.subscribe(throwing);
+        for (int i = 0; i < 5; i++) {
+            eventBus.dispatch(new Event());
+        }
+        Assert.assertEquals(2, throwing.invocations);
+        Assert.assertEquals(List.of("exec", "exec"), handled);
+        eventBus.unsubscribe(throwing);
+        eventBus.subscribe(throwing);
+        eventBus.dispatch(new Event());
+        Assert.assertEquals(3, throwing.invocations);
+    }
+
+    @Test
+    public void compiledDispatcher() {
+        List<String> handled = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(Runnable::run)
+                .compileThreshold(1)
+                .exceptionHandler((exception, subscriberMethod, event) -> handled.add(subscriberMethod.name()))
+                .build();
+        ThrowingListener throwing = new ThrowingListener();
+        CallerListener caller = new CallerListener();
+        CancelableListener cancelable = new CancelableListener();
+        eventBus.subscribe(throwing);
+        eventBus.subscribe(caller);
+        eventBus.subscribe(cancelable);
+        for (int i = 0; i < 3; i++) {
+            Event e = new Event();
+            eventBus.dispatch(e);
+            Assert.assertEquals(e, caller.event);
+            AtomicInteger canceled = new AtomicInteger();
+            eventBus.dispatch(new CancelableEvent(), event -> canceled.incrementAndGet());
+            Assert.assertEquals(1, canceled.get());
+        }
+        Assert.assertEquals(3, throwing.invocations);
+        Assert.assertEquals(List.of("exec", "exec", "exec"), handled);
+        Assert.assertEquals(30, cancelable.value);
+        // unsubscribing recompiles the chain without the listener
+        eventBus.unsubscribe(caller);
+        caller.event = null;
+        eventBus.dispatch(new Event());
+        eventBus.dispatch(new Event());
+        Assert.assertNull(caller.event);
+    }
+
+    @Test
+    public void abstractCancelable() {
+        FieldCancelableListener listener = new FieldCancelableListener();
+        EventBus eventBus = new EventBus(Runnable::run);
+        eventBus.subscribe(listener);
+        FieldCancelableEvent e = new FieldCancelableEvent();
+        AtomicInteger canceled = new AtomicInteger();
+        eventBus.dispatch(e, event -> canceled.incrementAndGet());
+        Assert.assertEquals(10, listener.value);
+        Assert.assertEquals(1, canceled.get());
+        Assert.assertFalse(e.isCanceled());
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void cancelableStateIsPerDispatch() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        EqualCancelableListener listener = new EqualCancelableListener(eventBus);
+        eventBus.subscribe(listener);
+        AtomicInteger outerCanceled = new AtomicInteger();
+        AtomicInteger innerCanceled = new AtomicInteger();
+        listener.innerCallback = event -> innerCanceled.incrementAndGet();
+        // the outer event is canceled before an equal event is dispatched from the same listener
+        eventBus.dispatch(new EqualCancelableEvent(0), event -> outerCanceled.incrementAndGet());
+        Assert.assertEquals(List.of("first0", "first1", "second1"), listener.calls);
+        Assert.assertEquals(1, outerCanceled.get());
+        Assert.assertEquals(0, innerCanceled.get());
+    }
+
+    @Test
+    public void supertypeListeners() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        SubEvent e = new SubEvent();
+        // plan is cached before anyone listens to the supertypes
+        eventBus.dispatch(e);
+
+        SupertypeListener listener = new SupertypeListener();
+        eventBus.subscribe(listener);
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        Assert.assertEquals(e, listener.marked);
+
+        eventBus.unsubscribe(listener);
+        listener.event = null;
+        eventBus.dispatch(e);
+        Assert.assertNull(listener.event);
+    }
+
+    @Test
+    public void dispatchAsync() throws Exception {
+        List<Runnable> mainThread = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(mainThread::add).build();
+        MainListener main = new MainListener();
+        CallerListener caller = new CallerListener();
+        eventBus.subscribe(main);
+        eventBus.subscribe(caller);
+        Event e = new Event();
+        CompletableFuture<DispatchResult> future = eventBus.dispatchAsync(e);
+        Assert.assertEquals(e, caller.event);
+        Assert.assertFalse(future.isDone());
+        mainThread.remove(0).run();
+        Assert.assertEquals(e, main.event);
+        Assert.assertFalse(future.get(1, TimeUnit.SECONDS).canceled());
+    }
+
+    @Test
+    public void dispatchAsyncCanceled() throws Exception {
+        EventBus eventBus = EventBus.builder(Runnable::run).executor(ForkJoinPool.commonPool()).build();
+        AsyncCancelableListener listener = new AsyncCancelableListener();
+        eventBus.subscribe(listener);
+        DispatchResult result = eventBus.dispatchAsync(new CancelableEvent()).get(1, TimeUnit.SECONDS);
+        Assert.assertTrue(result.canceled());
+        Assert.assertEquals("cancel", result.canceledBy().name());
+        Assert.assertEquals(List.of("pool", "cancel"), listener.calls);
+    }
+
+    @Test
+    public void dispatchAsyncScopes() throws Exception {
+        List<Runnable> mainThread = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(mainThread::add).build();
+        EventBus scope = eventBus.scope();
+        MainListener main = new MainListener();
+        scope.subscribe(main);
+        Event e = new Event();
+        CompletableFuture<DispatchResult> future = eventBus.dispatchAsync(e);
+        Assert.assertFalse(future.isDone());
+        mainThread.remove(0).run();
+        Assert.assertEquals(e, main.event);
+        Assert.assertFalse(future.get(1, TimeUnit.SECONDS).canceled());
+
+        EventBus nested = scope.scope();
+        nested.subscribe(new CancelableListener());
+        DispatchResult result = eventBus.dispatchAsync(new CancelableEvent()).get(1, TimeUnit.SECONDS);
+        Assert.assertTrue(result.canceled());
+        Assert.assertEquals("call1", result.canceledBy().name());
+    }
+
+    @Test
+    public void dispatchAsyncDropped() throws Exception {
+        List<Runnable> pool = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(Runnable::run).executor(new BoundedExecutor(pool::add, 1, 1, OverflowPolicy.DROP_OLDEST)).build();
+        PoolListener listener = new PoolListener();
+        eventBus.subscribe(listener);
+        Event dropped = new Event();
+        Event kept = new Event();
+        CompletableFuture<DispatchResult> droppedFuture = eventBus.dispatchAsync(dropped);
+        CompletableFuture<DispatchResult> keptFuture = eventBus.dispatchAsync(kept);
+        Assert.assertTrue(droppedFuture.isCompletedExceptionally());
+        pool.remove(0).run();
+        Assert.assertEquals(kept, listener.event);
+        Assert.assertFalse(keptFuture.get(1, TimeUnit.SECONDS).canceled());
+
+        EventBus rejecting = EventBus.builder(Runnable::run).executor(task -> {
+            throw new RejectedExecutionException("shut down");
+        }).build();
+        rejecting.subscribe(new PoolListener());
+        try {
+            rejecting.dispatchAsync(new Event()).get(1, TimeUnit.SECONDS);
+            Assert.fail("rejected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void ringBuffer() throws InterruptedException {
+        EventBus eventBus = EventBus.builder(Runnable::run).ringBuffer(Event.class, 64, WaitStrategy.YIELD, 2).build();
+        CountingListener listener = new CountingListener();
+        eventBus.subscribe(listener);
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    eventBus.dispatch(new SubEvent());
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        eventBus.close();
+        Assert.assertEquals(40_000, listener.value.get());
+    }
+
+    @Test
+    public void ringBufferCloseRacesPublish() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            EventBus eventBus = EventBus.builder(Runnable::run).ringBuffer(Event.class, 8, WaitStrategy.YIELD, 2).build();
+            CountingListener listener = new CountingListener();
+            eventBus.subscribe(listener);
+            CountDownLatch started = new CountDownLatch(4);
+            Thread[] producers = new Thread[4];
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = new Thread(() -> {
+                    started.countDown();
+                    for (int j = 0; j < 1_000; j++) {
+                        eventBus.dispatch(new SubEvent());
+                    }
+                });
+                producers[i].start();
+            }
+            started.await();
+            eventBus.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            // published before the consumers stopped or dispatched by the producer itself, never lost
+            Assert.assertEquals(4_000, listener.value.get());
+        }
+    }
+
+    @Test
+    public void weakSubscription() throws InterruptedException {
+        EventBus eventBus = new EventBus(Runnable::run);
+        DeadListener dead = new DeadListener();
+        eventBus.subscribe(dead);
+        CallerListener caller = new CallerListener();
+        eventBus.subscribeWeak(caller);
+        eventBus.subscribeWeak(caller);
+        eventBus.subscribe(caller);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, caller.event);
+        Assert.assertNull(dead.event);
+
+        WeakReference<CallerListener> reference = new WeakReference<>(caller);
+        caller = null;
+        // once the listener is collected and pruned, events no longer have a listener and go to the dead listener
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dead.event == null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            eventBus.dispatch(new Event());
+        }
+        Assert.assertNull(reference.get());
+        Assert.assertNotNull(dead.event);
+    }
+
+    @Test
+    public void unsubscribeWeak() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        CallerListener caller = new CallerListener();
+        eventBus.subscribeWeak(caller);
+        eventBus.unsubscribe(caller);
+        eventBus.dispatch(new Event());
+        Assert.assertNull(caller.event);
+    }
+
+    @Test
+    public void keyedSubscription() {
+        EventBus eventBus = EventBus.builder(Runnable::run).keyedBy(WorldEvent.class, WorldEvent::world).build();
+        WorldListener overworld = new WorldListener();
+        WorldListener nether = new WorldListener();
+        WorldListener everywhere = new WorldListener();
+        eventBus.subscribe(overworld, "overworld");
+        eventBus.subscribe(nether, "nether");
+        eventBus.subscribe(everywhere);
+        WorldEvent inOverworld = new WorldEvent("overworld", 1);
+        WorldEvent inEnd = new WorldEvent("end", 1);
+        eventBus.dispatch(inOverworld);
+        eventBus.dispatch(inEnd);
+        Assert.assertEquals(List.of(inOverworld), overworld.events);
+        Assert.assertEquals(List.of(), nether.events);
+        Assert.assertEquals(List.of(inOverworld, inEnd), everywhere.events);
+        eventBus.unsubscribe(overworld);
+        eventBus.dispatch(inOverworld);
+        Assert.assertEquals(List.of(inOverworld), overworld.events);
+    }
+
+    @Test
+    public void keyedSubscriptionChurn() {
+        EventBus eventBus = EventBus.builder(Runnable::run).keyedBy(WorldEvent.class, WorldEvent::world).build();
+        WorldListener overworld = new WorldListener();
+        WorldListener overworld2 = new WorldListener();
+        WorldListener end = new WorldListener();
+        WorldListener everywhere = new WorldListener();
+        WorldEvent inOverworld = new WorldEvent("overworld", 1);
+        WorldEvent inEnd = new WorldEvent("end", 1);
+        eventBus.subscribe(overworld, "overworld");
+        eventBus.dispatch(inOverworld);
+        // a known key only drops the plan of the key
+        eventBus.subscribe(overworld2, "overworld");
+        eventBus.dispatch(inOverworld);
+        // a new key drops the whole plan
+        eventBus.subscribe(end, "end");
+        eventBus.dispatch(inEnd);
+        // as does an unkeyed listener, which key plans include
+        eventBus.subscribe(everywhere);
+        eventBus.dispatch(inOverworld);
+        eventBus.unsubscribe(overworld);
+        eventBus.unsubscribe(overworld2);
+        eventBus.dispatch(inOverworld);
+        eventBus.dispatch(inEnd);
+        Assert.assertEquals(List.of(inOverworld, inOverworld, inOverworld), overworld.events);
+        Assert.assertEquals(List.of(inOverworld, inOverworld), overworld2.events);
+        Assert.assertEquals(List.of(inEnd, inEnd), end.events);
+        Assert.assertEquals(List.of(inOverworld, inOverworld, inEnd), everywhere.events);
+    }
+
+    @Test
+    public void filter() {
+        for (int threshold : new int[] {0, 1}) {
+            EventBus eventBus = EventBus.builder(Runnable::run).compileThreshold(threshold).build();
+            FilteredListener listener = new FilteredListener();
+            eventBus.subscribe(listener);
+            for (int i = 0; i < 4; i++) {
+                eventBus.dispatch(new WorldEvent("overworld", i));
+            }
+            Assert.assertEquals(List.of(1, 3), listener.events.stream().map(WorldEvent::value).toList());
+        }
+    }
+
+    @Test
+    public void sticky() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        StickyEvent first = new StickyEvent();
+        StickyEvent latest = new StickyEvent();
+        eventBus.dispatch(first);
+        eventBus.dispatch(latest);
+        StickyListener listener = new StickyListener();
+        eventBus.subscribe(listener);
+        Assert.assertEquals(List.of(latest), listener.events);
+        Assert.assertEquals(latest, eventBus.getSticky(StickyEvent.class));
+        Assert.assertEquals(latest, eventBus.removeSticky(StickyEvent.class));
+        StickyListener late = new StickyListener();
+        eventBus.subscribe(late);
+        Assert.assertEquals(List.of(), late.events);
+    }
+
+    @Test
+    public void stickyEviction() {
+        EventBus eventBus = EventBus.builder(Runnable::run).sticky(Event.class).stickyCapacity(1).build();
+        Event event = new Event();
+        SubEvent subEvent = new SubEvent();
+        eventBus.dispatch(event);
+        eventBus.dispatch(subEvent);
+        CallerListener listener = new CallerListener();
+        eventBus.subscribe(listener);
+        Assert.assertEquals(subEvent, listener.event);
+        Assert.assertNull(eventBus.getSticky(Event.class));
+    }
+
+    @Test
+    public void dispatchParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            EventBus eventBus = EventBus.builder(Runnable::run).parallelPool(pool).build();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            AtomicInteger invocations = new AtomicInteger();
+            for (int i = 0; i < 8; i++) {
+                eventBus.subscribe(new SlowListener(threads, invocations));
+            }
+            // the first dispatch runs sequentially to find out the listeners are worth forking
+            eventBus.dispatchParallel(new Event());
+            Assert.assertEquals(8, invocations.get());
+            Assert.assertEquals(Set.of(Thread.currentThread()), threads);
+            eventBus.dispatchParallel(new Event());
+            Assert.assertEquals(16, invocations.get());
+            Assert.assertTrue(threads.size() > 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelEvents() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            EventBus eventBus = EventBus.builder(Runnable::run).parallelPool(pool).build();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            AtomicInteger invocations = new AtomicInteger();
+            for (int i = 0; i < 8; i++) {
+                eventBus.subscribe(new SlowParallelListener(threads, invocations));
+            }
+            // EventInfo#parallel makes a plain dispatch fan out, once the first one measured the listeners
+            eventBus.dispatch(new ParallelEvent());
+            Assert.assertEquals(Set.of(Thread.currentThread()), threads);
+            eventBus.dispatch(new ParallelEvent());
+            Assert.assertEquals(16, invocations.get());
+            Assert.assertTrue(threads.size() > 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelEventsKeepListenerPreference() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Runnable> mainThread = new ArrayList<>();
+            EventBus eventBus = EventBus.builder(mainThread::add).parallelPool(pool).build();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            AtomicInteger invocations = new AtomicInteger();
+            MainParallelListener main = new MainParallelListener();
+            eventBus.subscribe(main);
+            for (int i = 0; i < 4; i++) {
+                eventBus.subscribe(new SlowParallelListener(threads, invocations));
+            }
+            ParallelEvent e = new ParallelEvent();
+            eventBus.dispatch(e);
+            Assert.assertEquals(4, invocations.get());
+            Assert.assertNull(main.event);
+            Assert.assertEquals(1, mainThread.size());
+            mainThread.remove(0).run();
+            Assert.assertSame(e, main.event);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void deadEvents() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        DeadListener listener = new DeadListener();
+        eventBus.subscribe(listener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, listener.event);
+        eventBus.unsubscribe(listener);
+    }
+
+    @Test
+    public void subscribeIdempotencyTest() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        final CountingListener countingListener = new CountingListener();
+        eventBus.subscribe(countingListener);
+        eventBus.subscribe(countingListener);
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(1, countingListener.value.get());
+        eventBus.unsubscribe(countingListener);
+    }
+
+    @Test
+    public void scopes() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        CallerListener global = new CallerListener();
+        eventBus.subscribe(global);
+        EventBus session = eventBus.scope();
+        EventBus world = session.scope();
+        CallerListener sessionListener = new CallerListener();
+        CallerListener worldListener = new CallerListener();
+        session.subscribe(sessionListener);
+        world.subscribe(worldListener);
+
+        Event e = new Event();
+        eventBus.dispatch(e);
+        Assert.assertEquals(e, global.event);
+        Assert.assertEquals(e, sessionListener.event);
+        Assert.assertEquals(e, worldListener.event);
+
+        // events dispatched on a scope do not reach its parent
+        Event scoped = new Event();
+        session.dispatch(scoped);
+        Assert.assertEquals(e, global.event);
+        Assert.assertEquals(scoped, worldListener.event);
+
+        // canceling stops the event from reaching scopes
+        CancelableListener canceling = new CancelableListener();
+        CancelableListener scopedCancelable = new CancelableListener();
+        eventBus.subscribe(canceling);
+        session.subscribe(scopedCancelable);
+        AtomicInteger canceled = new AtomicInteger();
+        eventBus.dispatch(new CancelableEvent(), event -> canceled.incrementAndGet());
+        Assert.assertEquals(1, canceled.get());
+        Assert.assertEquals(0, scopedCancelable.value);
+
+        session.close();
+        Event afterClose = new Event();
+        eventBus.dispatch(afterClose);
+        Assert.assertEquals(afterClose, global.event);
+        Assert.assertEquals(scoped, sessionListener.event);
+        Assert.assertEquals(scoped, worldListener.event);
+        try {
+            world.subscribe(new CallerListener());
+            Assert.fail("closing a scope closes its scopes");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void scopeStickyEvents() {
+        EventBus eventBus = new EventBus(Runnable::run);
+        EventBus session = eventBus.scope();
+        EventBus other = eventBus.scope();
+        StickyEvent inSession = new StickyEvent();
+        session.dispatch(inSession);
+
+        // sticky events of a scope do not leak to its parent or siblings
+        StickyListener global = new StickyListener();
+        StickyListener otherListener = new StickyListener();
+        StickyListener sessionListener = new StickyListener();
+        eventBus.subscribe(global);
+        other.subscribe(otherListener);
+        session.subscribe(sessionListener);
+        Assert.assertEquals(List.of(), global.events);
+        Assert.assertEquals(List.of(), otherListener.events);
+        Assert.assertEquals(List.of(inSession), sessionListener.events);
+        Assert.assertNull(eventBus.getSticky(StickyEvent.class));
+        Assert.assertNull(other.getSticky(StickyEvent.class));
+
+        // while those of the parent reach its scopes, unless the scope has its own
+        StickyEvent inRoot = new StickyEvent();
+        eventBus.dispatch(inRoot);
+        StickyListener lateOther = new StickyListener();
+        StickyListener lateSession = new StickyListener();
+        other.subscribe(lateOther);
+        session.subscribe(lateSession);
+        Assert.assertEquals(List.of(inRoot), lateOther.events);
+        Assert.assertEquals(List.of(inSession), lateSession.events);
+        Assert.assertSame(inRoot, other.getSticky(StickyEvent.class));
+        Assert.assertSame(inSession, session.getSticky(StickyEvent.class));
+    }
+
+    @Test
+    public void stickyReplaySkipsReplacedEvents() {
+        EventBus eventBus = EventBus.builder(Runnable::run).sticky(Event.class).sticky(WorldEvent.class).build();
+        eventBus.dispatch(new Event());
+        eventBus.dispatch(new WorldEvent("old", 1));
+        // replaying the Event dispatches a newer WorldEvent, so the one read before must not be replayed after it
+        ReplacingListener listener = new ReplacingListener(eventBus);
+        eventBus.subscribe(listener);
+        Assert.assertEquals(List.of(new WorldEvent("new", 2)), listener.events);
+    }
+
+    @Test
+    public void stickyReplayDefersEviction() {
+        EventBus eventBus = EventBus.builder(Runnable::run).sticky(Event.class).sticky(WorldEvent.class).stickyCapacity(2).build();
+        Event e = new Event();
+        eventBus.dispatch(e);
+        eventBus.dispatch(new WorldEvent("world", 1));
+        eventBus.subscribe(new CallerListener());
+        eventBus.dispatch(new StickyEvent());
+        Assert.assertNull(eventBus.getSticky(WorldEvent.class));
+        Assert.assertSame(e, eventBus.getSticky(Event.class));
+    }
+
+    @Test
+    public void stickyEventsKeepListenerPreference() {
+        List<Runnable> mainThread = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(mainThread::add).build();
+        MainStickyListener listener = new MainStickyListener();
+        eventBus.subscribe(listener);
+        MainStickyEvent e = new MainStickyEvent();
+        eventBus.dispatch(e);
+        Assert.assertNull(listener.event);
+        Assert.assertEquals(1, mainThread.size());
+        mainThread.remove(0).run();
+        Assert.assertSame(e, listener.event);
+
+        MainStickyListener late = new MainStickyListener();
+        eventBus.subscribe(late);
+        Assert.assertNull(late.event);
+        mainThread.remove(0).run();
+        Assert.assertSame(e, late.event);
+    }
+
+    @Test
+    public void pooledEvents() throws InterruptedException {
+        List<Runnable> mainThread = new ArrayList<>();
+        EventBus eventBus = EventBus.builder(mainThread::add)
+                .pool(TickEvent.class, TickEvent::new, 4)
+                .build();
+        TickListener listener = new TickListener();
+        eventBus.subscribe(listener);
+
+        TickEvent first = eventBus.acquire(TickEvent.class);
+        first.tick = 1;
+        eventBus.dispatch(first);
+        Assert.assertEquals(1, listener.lastTick);
+        // still held by the main thread listener
+        TickEvent second = eventBus.acquire(TickEvent.class);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(1, first.tick);
+
+        mainThread.forEach(Runnable::run);
+        mainThread.clear();
+        Assert.assertEquals(1, listener.mainTick);
+        Assert.assertEquals(0, first.tick);
+        Assert.assertSame(first, eventBus.acquire(TickEvent.class));
+
+        // released by another thread it goes back to the pool of the thread that created it
+        second.tick = 2;
+        eventBus.dispatch(second);
+        Thread other = new Thread(() -> mainThread.forEach(Runnable::run));
+        other.start();
+        other.join();
+        Assert.assertEquals(2, listener.mainTick);
+        Assert.assertSame(second, eventBus.acquire(TickEvent.class));
+
+        try {
+            eventBus.acquire(CancelableTick.class);
+            Assert.fail("not pooled");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void pooledCancelableEvents() {
+        EventBus eventBus = EventBus.builder(Runnable::run)
+                .pool(CancelableTick.class, CancelableTick::new, 4)
+                .build();
+        CancelableTickListener listener = new CancelableTickListener();
+        eventBus.subscribe(listener);
+        AtomicInteger canceled = new AtomicInteger();
+        CancelableTick first = eventBus.acquire(CancelableTick.class);
+        eventBus.dispatch(first, event -> canceled.incrementAndGet());
+        Assert.assertEquals(1, canceled.get());
+        Assert.assertEquals(1, listener.calls);
+        // back in the pool with the flag cleared
+        CancelableTick second = eventBus.acquire(CancelableTick.class);
+        Assert.assertSame(first, second);
+        Assert.assertFalse(second.isCanceled());
+    }
+
+    public static class TickEvent extends PooledEvent {
+        int tick;
+
+        @Override
+        protected void reset() {
+            tick = 0;
+        }
+    }
+
+    public static class CancelableTick extends PooledCancelable {}
+
+    public static class CancelableTickListener {
+        int calls;
+
+        @Subscribe(value = Preference.CALLER, priority = 2)
+        public void cancel(CancelableTick event) {
+            calls++;
+            event.cancel();
+        }
+
+        @Subscribe(value = Preference.CALLER, priority = 1)
+        public void after(CancelableTick event) {
+            calls++;
+        }
+    }
+
+    public static class TickListener {
+        int lastTick;
+        int mainTick;
+
+        @Subscribe(Preference.CALLER)
+        public void onTick(TickEvent event) {
+            lastTick = event.tick;
+        }
+
+        @Subscribe(Preference.MAIN)
+        public void onTickMain(TickEvent event) {
+            mainTick = event.tick;
+        }
+    }
+
+    @Test
+    public void discardedBusIsCollected() throws InterruptedException {
+        List<WeakReference<EventBus>> buses = discardedBuses();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (buses.stream().anyMatch(reference -> reference.get() != null) && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        for (WeakReference<EventBus> reference : buses) {
+            Assert.assertNull(reference.get());
+        }
+    }
+
+    /**
+     * @return a root bus and a scope of it dropped without closing, both with cached and compiled plans
+     */
+    private static List<WeakReference<EventBus>> discardedBuses() {
+        EventBus eventBus = EventBus.builder(Runnable::run).compileThreshold(1).build();
+        EventBus scope = eventBus.scope();
+        eventBus.subscribe(new BusListener(eventBus));
+        scope.subscribe(new BusListener(scope));
+        for (int i = 0; i < 3; i++) {
+            eventBus.dispatch(new Event());
+            eventBus.dispatch(new CancelableEvent());
+        }
+        return List.of(new WeakReference<>(eventBus), new WeakReference<>(scope));
+    }
+
+    public static class BusListener {
+        final EventBus eventBus;
+
+        BusListener(EventBus eventBus) {
+            this.eventBus = eventBus;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void exec(Event event) {}
+
+        @Subscribe(Preference.CALLER)
+        public void exec(CancelableEvent event) {}
+    }
+
+    public static class Event {}
+
+    public record WorldEvent(String world, int value) {}
+
+    @EventInfo(preference = Preference.CALLER, sticky = true)
+    public static class StickyEvent {}
+
+    @EventInfo(sticky = true)
+    public static class MainStickyEvent {}
+
+    public static class MainStickyListener {
+        MainStickyEvent event;
+        @Subscribe(Preference.MAIN)
+        public void exec(MainStickyEvent event) {
+            this.event = event;
+        }
+    }
+
+    public static class StickyListener {
+        final List<StickyEvent> events = new ArrayList<>();
+
+        @Subscribe
+        public void exec(StickyEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class ReplacingListener {
+        final EventBus eventBus;
+        final List<WorldEvent> events = new ArrayList<>();
+
+        ReplacingListener(EventBus eventBus) {
+            this.eventBus = eventBus;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void replace(Event event) {
+            eventBus.dispatch(new WorldEvent("new", 2));
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void exec(WorldEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class WorldListener {
+        final List<WorldEvent> events = new ArrayList<>();
+
+        @Subscribe(Preference.CALLER)
+        public void exec(WorldEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class Odd implements Predicate<WorldEvent> {
+        @Override
+        public boolean test(WorldEvent event) {
+            return event.value() % 2 == 1;
+        }
+    }
+
+    public static class FilteredListener {
+        final List<WorldEvent> events = new ArrayList<>();
+
+        @Subscribe(value = Preference.CALLER, filter = Odd.class)
+        public void exec(WorldEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class CallerListener {
+        Event event;
+        @Subscribe(Preference.CALLER)
+        public void exec(Event event) {
+            this.event = event;
+        }
+    }
+
+    public static class MainListener {
+        Event event;
+        @Subscribe(Preference.MAIN)
+        public void exec(Event event) {
+            this.event = event;
+        }
+    }
+
+    public static class PoolListener {
+        Event event;
+        @Subscribe(Preference.POOL)
+        public void exec(Event event) {
+            this.event = event;
+        }
+    }
+
+    public static class DeadListener {
+        Object event;
+        @Subscribe(Preference.CALLER)
+        public void exec(Object event) {
+            this.event = event;
+        }
+    }
+
+    public static class CancelableListener {
+        int value = 0;
+
+        @Subscribe(value = Preference.CALLER)
+        public void call1(CancelableEvent event) {
+            value = value + 10;
+            event.cancel();
+        }
+
+        @Subscribe(value = Preference.CALLER)
+        public void call2(CancelableEvent event) {
+            value = value + 10;
+            event.cancel();
+        }
+    }
+
+    public static class CountingListener {
+        final AtomicInteger value = new AtomicInteger();
+
+        @Subscribe(value = Preference.CALLER)
+        public void onEvent(Object event) {
+            value.incrementAndGet();
+        }
+    }
+
+    public static class CancelableEvent implements Cancelable {}
+
+    @EventInfo(parallel = true)
+    public static class ParallelEvent {}
+
+    public static class MainParallelListener {
+        ParallelEvent event;
+        @Subscribe(Preference.MAIN)
+        public void exec(ParallelEvent event) {
+            this.event = event;
+        }
+    }
+
+    public static class SlowParallelListener {
+        final Set<Thread> threads;
+        final AtomicInteger invocations;
+
+        SlowParallelListener(Set<Thread> threads, AtomicInteger invocations) {
+            this.threads = threads;
+            this.invocations = invocations;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void exec(ParallelEvent event) throws InterruptedException {
+            Thread.sleep(5);
+            threads.add(Thread.currentThread());
+            invocations.incrementAndGet();
+        }
+    }
+
+    public static class SlowListener {
+        final Set<Thread> threads;
+        final AtomicInteger invocations;
+
+        SlowListener(Set<Thread> threads, AtomicInteger invocations) {
+            this.threads = threads;
+            this.invocations = invocations;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void exec(Event event) throws InterruptedException {
+            Thread.sleep(5);
+            threads.add(Thread.currentThread());
+            invocations.incrementAndGet();
+        }
+    }
+
+    public static class ThrowingListener {
+        int invocations;
+
+        @Subscribe(value = Preference.CALLER, priority = 1)
+        public void exec(Event event) {
+            invocations++;
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    public static class AsyncCancelableListener {
+        final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Subscribe(value = Preference.POOL, priority = 3)
+        public void pool(CancelableEvent event) {
+            calls.add("pool");
+        }
+
+        @Subscribe(value = Preference.CALLER, priority = 2)
+        public void cancel(CancelableEvent event) {
+            calls.add("cancel");
+            event.cancel();
+        }
+
+        @Subscribe(value = Preference.CALLER, priority = 1)
+        public void after(CancelableEvent event) {
+            calls.add("after");
+        }
+    }
+
+    public record KeyedEvent(String key, int value) {}
+
+    public static class ExecutorListener {
+        Event event;
+        Event dbEvent;
+
+        @Subscribe(Preference.POOL)
+        public void exec(Event event) {
+            this.event = event;
+        }
+
+        @Subscribe(value = Preference.POOL, executor = "db")
+        public void db(Event event) {
+            this.dbEvent = event;
+        }
+    }
+
+    public static class KeyedListener {
+        final List<KeyedEvent> events = new ArrayList<>();
+
+        @Subscribe(Preference.MAIN)
+        public void exec(KeyedEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class EqualKeyedListener extends KeyedListener {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EqualKeyedListener;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    public interface MarkerEvent {}
+
+    public static class SubEvent extends Event implements MarkerEvent {}
+
+    public static class SupertypeListener {
+        Event event;
+        MarkerEvent marked;
+
+        @Subscribe(Preference.CALLER)
+        public void exec(Event event) {
+            this.event = event;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void marked(MarkerEvent event) {
+            this.marked = event;
+        }
+    }
+
+    public static class EqualCancelableEvent implements Cancelable {
+        final int depth;
+
+        EqualCancelableEvent(int depth) {
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof EqualCancelableEvent;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    public static class EqualCancelableListener {
+        final EventBus eventBus;
+        final List<String> calls = new ArrayList<>();
+        CancelableCallback innerCallback;
+
+        EqualCancelableListener(EventBus eventBus) {
+            this.eventBus = eventBus;
+        }
+
+        @Subscribe(value = Preference.CALLER, priority = 2)
+        public void first(EqualCancelableEvent event) {
+            calls.add("first" + event.depth);
+            if (event.depth == 0) {
+                event.cancel();
+                eventBus.dispatch(new EqualCancelableEvent(1), innerCallback);
+            }
+        }
+
+        @Subscribe(value = Preference.CALLER, priority = 1)
+        public void second(EqualCancelableEvent event) {
+            calls.add("second" + event.depth);
+        }
+    }
+
+    public static class FieldCancelableEvent extends AbstractCancelable {}
+
+    public static class FieldCancelableListener {
+        int value = 0;
+
+        @Subscribe(value = Preference.CALLER)
+        public void call1(FieldCancelableEvent event) {
+            value = value + 10;
+            event.cancel();
+        }
+
+        @Subscribe(value = Preference.CALLER)
+        public void call2(FieldCancelableEvent event) {
+            value = value + 10;
+            event.cancel();
+        }
+    }
+
+    public static class NamedListener {
+        final String name;
+        final List<String> calls;
+
+        NamedListener(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Subscribe(Preference.CALLER)
+        public void exec(Event event) {
+            calls.add(name);
+        }
+    }
+
+    public static class CallerListenerA extends CallerListener {
+        public Event event2;
+
+        @Subscribe(Preference.CALLER)
+        public void exec2(Event event) {
+            this.event2 = event;
+        }
+    }
+
+    public static class CallerListenerB extends CallerListener {
+        public Event event3;
+
+        @Subscribe(Preference.CALLER)
+        public void exec3(Event event) {
+            this.event3 = event;
+        }
+    }
+
+    public static class PrivateListener  {
+        Event event;
+        @Subscribe(Preference.CALLER)
+        private void exec(Event event) {
+            this.event = event;
+        }
+    }
+}
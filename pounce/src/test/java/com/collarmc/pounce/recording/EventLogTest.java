@@ -0,0 +1,166 @@
+package com.collarmc.pounce.recording;
+
+import com.collarmc.pounce.EventBus;
+import com.collarmc.pounce.PooledEvent;
+import com.collarmc.pounce.Preference;
+import com.collarmc.pounce.Subscribe;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventLogTest {
+
+    @Test
+    public void recordAndReplay() throws IOException {
+        Path path = Files.createTempFile("pounce", ".log");
+        try {
+            EventSerializers serializers = new EventSerializers().register(Moved.class, new MovedSerializer());
+            try (EventLogWriter writer = new EventLogWriter(path, serializers, 1024)) {
+                EventBus eventBus = EventBus.builder(Runnable::run).recorder(writer).build();
+                for (int i = 0; i < 100; i++) {
+                    eventBus.dispatch(new Moved(i, "player" + i));
+                }
+                // not registered, so not recorded
+                eventBus.dispatch("unrecorded");
+                Assert.assertEquals(0, writer.dropped());
+            }
+
+            List<EventLog.RecordedEvent> events;
+            try (EventLog log = EventLog.open(path, serializers)) {
+                events = log.readAll();
+            }
+            Assert.assertEquals(100, events.size());
+            Assert.assertEquals(new Moved(42, "player42"), events.get(42).event());
+
+            MovedListener listener = new MovedListener();
+            EventBus replayBus = new EventBus(Runnable::run);
+            replayBus.subscribe(listener);
+            ReplayReport report = new ReplayDriver(replayBus).speed(0).replay(events);
+            Assert.assertEquals(100, report.events());
+            Assert.assertTrue(report.p50Nanos() <= report.p99Nanos() && report.p99Nanos() <= report.maxNanos());
+            Assert.assertEquals(100, listener.events.size());
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals(i, listener.events.get(i).x());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void recordPooledEvents() throws IOException {
+        Path path = Files.createTempFile("pounce", ".log");
+        try {
+            EventSerializers serializers = new EventSerializers().register(Tick.class, new TickSerializer());
+            try (EventLogWriter writer = new EventLogWriter(path, serializers, 1024)) {
+                EventBus eventBus = EventBus.builder(Runnable::run).pool(Tick.class, Tick::new, 1).recorder(writer).build();
+                for (int i = 1; i <= 10; i++) {
+                    Tick tick = eventBus.acquire(Tick.class);
+                    tick.tick = i;
+                    eventBus.dispatch(tick);
+                }
+            }
+            List<EventLog.RecordedEvent> events;
+            try (EventLog log = EventLog.open(path, serializers)) {
+                events = log.readAll();
+            }
+            // recorded as dispatched, not as reset once back in the pool
+            Assert.assertEquals(10, events.size());
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(i + 1, ((Tick) events.get(i).event()).tick);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void skipEventsFailingToSerialize() throws IOException {
+        Path path = Files.createTempFile("pounce", ".log");
+        try {
+            EventSerializers serializers = new EventSerializers().register(Moved.class, new MovedSerializer());
+            EventLogWriter writer = new EventLogWriter(path, serializers, 1024);
+            try (writer) {
+                EventBus eventBus = EventBus.builder(Runnable::run).recorder(writer).build();
+                for (int i = 0; i < 10; i++) {
+                    // writeUTF throws on the null player
+                    eventBus.dispatch(new Moved(i, i == 5 ? null : "player" + i));
+                }
+            }
+            Assert.assertEquals(1, writer.dropped());
+            List<EventLog.RecordedEvent> events;
+            try (EventLog log = EventLog.open(path, serializers)) {
+                events = log.readAll();
+            }
+            Assert.assertEquals(9, events.size());
+            Assert.assertEquals(new Moved(9, "player9"), events.get(8).event());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notAnEventLog() throws IOException {
+        Path path = Files.createTempFile("pounce", ".log");
+        try {
+            Files.writeString(path, "hello");
+            EventLog.open(path, new EventSerializers()).close();
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    public record Moved(int x, String player) {}
+
+    public static final class MovedSerializer implements EventSerializer<Moved> {
+        @Override
+        public void write(Moved event, DataOutput out) throws IOException {
+            out.writeInt(event.x());
+            out.writeUTF(event.player());
+        }
+
+        @Override
+        public Moved read(DataInput in) throws IOException {
+            return new Moved(in.readInt(), in.readUTF());
+        }
+    }
+
+    public static final class Tick extends PooledEvent {
+        int tick;
+
+        @Override
+        protected void reset() {
+            tick = 0;
+        }
+    }
+
+    public static final class TickSerializer implements EventSerializer<Tick> {
+        @Override
+        public void write(Tick event, DataOutput out) throws IOException {
+            out.writeInt(event.tick);
+        }
+
+        @Override
+        public Tick read(DataInput in) throws IOException {
+            Tick tick = new Tick();
+            tick.tick = in.readInt();
+            return tick;
+        }
+    }
+
+    public static final class MovedListener {
+        final List<Moved> events = new ArrayList<>();
+
+        @Subscribe(Preference.CALLER)
+        public void onMoved(Moved event) {
+            events.add(event);
+        }
+    }
+}
@@ -1,12 +0,0 @@
-package com.collarmc.pounce;
-
-import java.lang.annotation.ElementType;
-import java.lang.annotation.Retention;
-import java.lang.annotation.RetentionPolicy;
-import java.lang.annotation.Target;
-
-@Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.TYPE)
-public @interface EventInfo {
-    Preference preference() default Preference.DISPATCH;
-}
@@ -1,8 +0,0 @@
-package com.collarmc.pounce;
-
-public enum Preference {
-    MAIN,
-    DISPATCH,
-    CALLER,
-    POOL
-}